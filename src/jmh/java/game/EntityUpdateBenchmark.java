@@ -0,0 +1,70 @@
+package game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-entity update cost against levels of growing size.
+ * Entities keep moving between invocations, so this measures the steady state of a running game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityUpdateBenchmark {
+
+    @Param({"20", "200", "2000"})
+    public int platformCount;
+
+    private List<Platform> platforms;
+    private Player player;
+    private Enemy enemy;
+    private Boss boss;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        platforms = level(platformCount, 42);
+        player = new Player(100, 100);
+        enemy = new Enemy(400, 50);
+        boss = new Boss(600, 50);
+    }
+
+    @Benchmark
+    public Player playerUpdate() {
+        player.update(platforms);
+        return player;
+    }
+
+    @Benchmark
+    public Enemy enemyUpdate() {
+        enemy.update(player, platforms);
+        return enemy;
+    }
+
+    @Benchmark
+    public Boss bossUpdate() {
+        boss.update(player, platforms);
+        return boss;
+    }
+
+    // พื้น + ขอบ แบบเดียวกับ GameWorld แล้วกระจาย platform ที่เหลือทั่วทั้งด่าน
+    static List<Platform> level(int count, long seed) {
+        Random random = new Random(seed);
+        int w = GameWorld.WIDTH, h = GameWorld.HEIGHT;
+        List<Platform> platforms = new ArrayList<>(count);
+        platforms.add(new Platform(0, h - 90, w * 3, 60, true, 0));
+        platforms.add(new Platform(-200, 0, 200, h, true, 0));
+        platforms.add(new Platform(w * 3, 0, 200, h, true, 0));
+        for (int i = platforms.size(); i < count; i++) {
+            platforms.add(new Platform(random.nextInt(w * 3), h - 150 - random.nextInt(500),
+                    100 + random.nextInt(100), 20));
+        }
+        return platforms;
+    }
+}
@@ -0,0 +1,47 @@
+package game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulation tick in horde mode with the population already at its cap, all of it chasing
+ * the player through the flow field. 16.7 ms per op is the 60 ticks/s budget.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dgame.horde=true", "-Dgame.world.chunks=0"})
+@State(Scope.Thread)
+public class HordeBenchmark {
+
+    @Param({"1000", "5000"})
+    public int population;
+
+    private GameWorld world;
+    private final PlayerInput input = new PlayerInput();
+    private long frame;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        System.setProperty("game.horde.max", String.valueOf(population));
+        System.setProperty("game.horde.start", String.valueOf(population));
+        world = new GameWorld(42);
+        frame = 0;
+        // ให้ฝูงเกิดครบและวิ่งเข้าหาผู้เล่นก่อนเริ่มวัด
+        for (int i = 0; i < population / HordeDirector.SPAWNS_PER_TICK + 600; i++) step();
+    }
+
+    @Benchmark
+    public GameWorld step() {
+        input.right = (frame / 240) % 2 == 0;
+        input.left = !input.right;
+        input.attack = frame % 20 == 0;
+        world.step(input);
+        input.clearPresses();
+        world.getPlayer().health = 100;
+        frame++;
+        return world;
+    }
+}
@@ -0,0 +1,42 @@
+package game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParticleSystem.update with a steady population: each invocation bursts as many sparks
+ * as die on average, so the live count stays around the requested size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParticleUpdateBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int live;
+
+    private ParticleSystem particles;
+    private int perTick;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        particles = new ParticleSystem(ParticleSystem.DEFAULT_CAPACITY, ParticleSystem.OverflowPolicy.DROP);
+        // อายุเฉลี่ย ~30 tick
+        perTick = Math.max(1, live / 30);
+        for (int i = 0; i < 40; i++) {
+            particles.burst(800, 400, perTick);
+            particles.update();
+        }
+    }
+
+    @Benchmark
+    public int update() {
+        particles.burst(800, 400, perTick);
+        particles.update();
+        return particles.size();
+    }
+}
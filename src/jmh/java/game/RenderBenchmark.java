@@ -0,0 +1,54 @@
+package game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SkeletonKiller.paintComponent drawn into an offscreen BufferedImage.
+ * Run with -Djava.awt.headless=true (set for the forked JVM below) so no display is needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+    // ศัตรูทั้งด่าน: ค่ามากควรแทบไม่เปลี่ยนเวลา เพราะวาดเฉพาะที่อยู่ในกล้อง
+    @Param({"5", "1000"})
+    public int enemyCount;
+
+    private SkeletonKiller game;
+    private BufferedImage target;
+    private Graphics2D g;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = new SkeletonKiller(true);
+        game.setSize(GameWorld.WIDTH, GameWorld.HEIGHT);
+        GameWorld world = game.getWorld();
+        int span = GameWorld.WIDTH * 3 - 400;
+        for (int i = world.getEnemies().size(); i < enemyCount; i++) {
+            world.addEnemy(200 + (int) ((long) i * span / enemyCount), 50);
+        }
+        // เล่นไปสักพักให้มี enemy, particle และ trail บนจอ
+        for (int i = 0; i < 120; i++) game.tick();
+        target = new BufferedImage(GameWorld.WIDTH, GameWorld.HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        g = target.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paintComponent() {
+        game.paintComponent(g);
+        return target;
+    }
+}
@@ -0,0 +1,47 @@
+package game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full simulation tick (GameWorld.step) with a crowd of enemies spread over the level.
+ * The player only walks and is healed every tick, so the world never drops into the cheap
+ * game-over / boss-won states; the crowd still chases and attacks, which exercises combat.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldStepBenchmark {
+
+    @Param({"5", "100", "1000"})
+    public int enemyCount;
+
+    private GameWorld world;
+    private final PlayerInput input = new PlayerInput();
+    private long frame;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        world = new GameWorld(42);
+        int span = GameWorld.WIDTH * 3 - 400;
+        for (int i = world.getEnemies().size(); i < enemyCount; i++) {
+            world.addEnemy(200 + (int) ((long) i * span / enemyCount), 50);
+        }
+        frame = 0;
+    }
+
+    @Benchmark
+    public GameWorld step() {
+        // เดินไป-กลับ ให้ enemy ตามมาและ activate/deactivate ตลอด
+        input.right = (frame / 240) % 2 == 0;
+        input.left = !input.right;
+        world.step(input);
+        world.getPlayer().health = 100;
+        frame++;
+        return world;
+    }
+}
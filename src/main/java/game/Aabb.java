@@ -0,0 +1,33 @@
+package game;
+
+/**
+ * Mutable integer axis-aligned box.
+ * Entities keep one per box they expose and refill it on every get, so bounds queries on the
+ * physics and combat hot path never allocate. Don't hold on to a returned box across ticks.
+ */
+public final class Aabb {
+    public int x, y, width, height;
+
+    public Aabb set(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        return this;
+    }
+
+    public boolean intersects(int ox, int oy, int ow, int oh) {
+        return ow > 0 && oh > 0 && width > 0 && height > 0
+                && ox < x + width && x < ox + ow
+                && oy < y + height && y < oy + oh;
+    }
+
+    public boolean intersects(Aabb o) {
+        return intersects(o.x, o.y, o.width, o.height);
+    }
+
+    @Override
+    public String toString() {
+        return "Aabb[" + x + "," + y + " " + width + "x" + height + "]";
+    }
+}
@@ -0,0 +1,185 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active rendering path: draws the latest RenderSnapshot straight into a page-flipped BufferStrategy
+ * on its own thread, instead of going through repaint() and Swing's back buffer.
+ * Can also take the screen in full-screen exclusive mode with a chosen display mode.
+ */
+public class ActiveRenderer extends Canvas implements Runnable {
+    private static final long serialVersionUID = 1L;
+
+    private final SkeletonKiller game;
+    private final int buffers;
+    private final long frameNanos;
+
+    private volatile boolean running;
+    private Thread thread;
+    private BufferStrategy strategy;
+
+    private GraphicsDevice fullScreenDevice;
+
+    private volatile long framesPresented;
+    private volatile long framesDropped;
+
+    public ActiveRenderer(SkeletonKiller game, int buffers, int framesPerSecond) {
+        this.game = game;
+        this.buffers = buffers;
+        this.frameNanos = framesPerSecond > 0 ? 1_000_000_000L / framesPerSecond : 0;
+        setPreferredSize(new Dimension(SkeletonKiller.WIDTH, SkeletonKiller.HEIGHT));
+        setBackground(new Color(20, 20, 30));
+        setIgnoreRepaint(true);
+        setFocusable(true);
+        addKeyListener(game);
+    }
+
+    /**
+     * Switches the window to full-screen exclusive mode. With a requested size, the closest supported
+     * display mode is chosen (refresh rate 0 = any). Returns false if the device can't do exclusive mode.
+     */
+    public boolean enterFullScreen(Window window, int width, int height, int refreshRate) {
+        GraphicsDevice device = window.getGraphicsConfiguration().getDevice();
+        if (!device.isFullScreenSupported()) {
+            System.err.println("⚠️ Full-screen exclusive mode not supported, staying windowed.");
+            return false;
+        }
+        device.setFullScreenWindow(window);
+        fullScreenDevice = device;
+
+        if (width > 0 && height > 0 && device.isDisplayChangeSupported()) {
+            DisplayMode mode = chooseDisplayMode(device, width, height, refreshRate);
+            if (mode != null) {
+                try {
+                    device.setDisplayMode(mode);
+                    System.out.println("✅ Display mode " + mode.getWidth() + "x" + mode.getHeight()
+                            + "@" + mode.getRefreshRate());
+                } catch (IllegalArgumentException | UnsupportedOperationException e) {
+                    System.err.println("⚠️ Display mode change rejected: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private static DisplayMode chooseDisplayMode(GraphicsDevice device, int width, int height, int refreshRate) {
+        DisplayMode best = null;
+        for (DisplayMode m : device.getDisplayModes()) {
+            if (m.getWidth() != width || m.getHeight() != height) continue;
+            if (refreshRate > 0 && m.getRefreshRate() != DisplayMode.REFRESH_RATE_UNKNOWN
+                    && m.getRefreshRate() != refreshRate) continue;
+            if (best == null
+                    || m.getBitDepth() > best.getBitDepth()
+                    || (m.getBitDepth() == best.getBitDepth() && m.getRefreshRate() > best.getRefreshRate())) {
+                best = m;
+            }
+        }
+        if (best == null) System.err.println("⚠️ No display mode " + width + "x" + height + " available.");
+        return best;
+    }
+
+    /** Call after the window is visible (the canvas must be displayable to get a BufferStrategy). */
+    public synchronized void start() {
+        if (running) return;
+        createStrategy();
+        requestFocus();
+        running = true;
+        game.start();
+        thread = new Thread(this, "render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        game.stop();
+        if (thread != null) {
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        if (fullScreenDevice != null) {
+            fullScreenDevice.setFullScreenWindow(null);
+            fullScreenDevice = null;
+        }
+        System.out.println("🎞 Frames presented: " + framesPresented + ", dropped: " + framesDropped);
+    }
+
+    // ลอง page flipping ก่อน ถ้าไม่ได้ค่อยใช้ blit ธรรมดา
+    private void createStrategy() {
+        BufferCapabilities flip = new BufferCapabilities(
+                new ImageCapabilities(true), new ImageCapabilities(true),
+                BufferCapabilities.FlipContents.UNDEFINED);
+        try {
+            createBufferStrategy(buffers, flip);
+        } catch (AWTException e) {
+            createBufferStrategy(buffers);
+        }
+        strategy = getBufferStrategy();
+        System.out.println("✅ BufferStrategy: " + buffers + " buffers, page flipping "
+                + strategy.getCapabilities().isPageFlipping());
+    }
+
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        while (running) {
+            renderFrame();
+
+            if (frameNanos > 0) {
+                nextFrame += frameNanos;
+                long now = System.nanoTime();
+                if (now > nextFrame) {
+                    // วาดช้ากว่า slot ของจอ -> นับเฟรมที่จอไม่ได้ของใหม่
+                    long missed = (now - nextFrame) / frameNanos;
+                    framesDropped += missed;
+                    nextFrame += missed * frameNanos;
+                } else {
+                    LockSupport.parkNanos(nextFrame - now);
+                }
+            }
+        }
+    }
+
+    private void renderFrame() {
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    g.setColor(getBackground());
+                    g.fillRect(0, 0, getWidth(), getHeight());
+                    fitViewport(g);
+                    game.render(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+            // back buffer หายระหว่าง show -> เฟรมนั้นไม่ถึงจอ ต้องวาดใหม่
+            if (strategy.contentsLost()) framesDropped++;
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        framesPresented++;
+        game.framePresented();
+    }
+
+    // จอ full-screen อาจไม่ใช่ 1600x900 -> scale แบบรักษาสัดส่วนแล้วจัดกึ่งกลาง
+    private void fitViewport(Graphics2D g) {
+        int w = getWidth();
+        int h = getHeight();
+        if (w == SkeletonKiller.WIDTH && h == SkeletonKiller.HEIGHT) return;
+        double scale = Math.min(w / (double) SkeletonKiller.WIDTH, h / (double) SkeletonKiller.HEIGHT);
+        g.translate((w - SkeletonKiller.WIDTH * scale) / 2, (h - SkeletonKiller.HEIGHT * scale) / 2);
+        g.scale(scale, scale);
+        g.clipRect(0, 0, SkeletonKiller.WIDTH, SkeletonKiller.HEIGHT);
+    }
+
+    public long getFramesPresented() { return framesPresented; }
+    public long getFramesDropped() { return framesDropped; }
+}
@@ -0,0 +1,38 @@
+package game;
+
+/**
+ * One animation of an Archetype: which sheet to slice, how many frames to play and how many
+ * ticks each frame lasts, plus an optional damage window (the frames during which an attack
+ * can hit). Immutable and shared by every entity of the archetype; an entity only keeps the
+ * current clip reference, its frame and its tick counter.
+ */
+public final class AnimationClip {
+    public final String name;
+    public final String sheet;
+    public final int frames;
+    public final int ticksPerFrame;
+    // -1 = ไม่มีช่วงทำดาเมจ
+    public final int damageFrom;
+    public final int damageTo;
+
+    AnimationClip(String name, String sheet, int frames, int ticksPerFrame, int damageFrom, int damageTo) {
+        if (frames <= 0 || ticksPerFrame <= 0) throw new IllegalArgumentException("frames and ticks must be positive");
+        if (damageFrom > damageTo || damageTo >= frames) throw new IllegalArgumentException("bad damage window");
+        this.name = name;
+        this.sheet = sheet;
+        this.frames = frames;
+        this.ticksPerFrame = ticksPerFrame;
+        this.damageFrom = damageFrom;
+        this.damageTo = damageTo;
+    }
+
+    /** True on the frame where the damage window opens. */
+    public boolean opensDamage(int frame) {
+        return damageFrom >= 0 && frame == damageFrom;
+    }
+
+    /** True on frames after the damage window. */
+    public boolean closesDamage(int frame) {
+        return frame > damageTo;
+    }
+}
@@ -0,0 +1,157 @@
+package game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Shared definition of an entity kind: frame size and draw scale, base stats and animation
+ * clips. All archetypes are read once from /data/archetypes.txt (see that file for the format);
+ * entities keep a reference to theirs instead of per-instance copies of the constants.
+ */
+public final class Archetype {
+    private static final String RESOURCE = "/data/archetypes.txt";
+
+    public final String name;
+    public final int frameWidth, frameHeight, scale;
+    public final int width, height;
+    public final int health, damage;
+    public final double moveSpeed, jumpPower;
+    private final List<AnimationClip> clips;
+
+    private Archetype(String name, int frameWidth, int frameHeight, int scale, int[] stats, double[] motion,
+                      List<AnimationClip> clips) {
+        this.name = name;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        this.scale = scale;
+        this.width = frameWidth * scale;
+        this.height = frameHeight * scale;
+        this.health = stats[0];
+        this.damage = stats[1];
+        this.moveSpeed = motion[0];
+        this.jumpPower = motion[1];
+        this.clips = List.copyOf(clips);
+    }
+
+    /** The archetype called name; fails if the data file does not define it. */
+    public static Archetype get(String name) {
+        Archetype a = Registry.ALL.get(name);
+        if (a == null) throw new IllegalStateException(RESOURCE + ": no archetype '" + name + "'");
+        return a;
+    }
+
+    /** Clips indexed by the ordinal of states, matched by lower-case name. */
+    public <E extends Enum<E>> AnimationClip[] clips(Class<E> states) {
+        E[] values = states.getEnumConstants();
+        AnimationClip[] out = new AnimationClip[values.length];
+        for (E s : values) {
+            String clip = s.name().toLowerCase(Locale.ROOT);
+            for (AnimationClip c : clips) {
+                if (c.name.equals(clip)) out[s.ordinal()] = c;
+            }
+            if (out[s.ordinal()] == null) {
+                throw new IllegalStateException(RESOURCE + ": archetype '" + name + "' has no clip '" + clip + "'");
+            }
+        }
+        return out;
+    }
+
+    // โหลดครั้งแรกที่มีคนเรียก get()
+    private static final class Registry {
+        static final Map<String, Archetype> ALL = load();
+
+        private static Map<String, Archetype> load() {
+            InputStream in = Archetype.class.getResourceAsStream(RESOURCE);
+            if (in == null) throw new IllegalStateException(RESOURCE + " not found on the classpath");
+            Map<String, Archetype> all = new HashMap<>();
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                Builder b = null;
+                String line;
+                for (int n = 1; (line = r.readLine()) != null; n++) {
+                    int hash = line.indexOf('#');
+                    if (hash >= 0) line = line.substring(0, hash);
+                    line = line.trim();
+                    if (line.isEmpty()) continue;
+                    try {
+                        String[] t = line.split("\\s+");
+                        if (t[0].equals("archetype")) {
+                            if (b != null) b.put(all);
+                            b = new Builder(t);
+                        } else if (b == null) {
+                            throw new IllegalArgumentException("'" + t[0] + "' before any archetype");
+                        } else {
+                            b.parse(t);
+                        }
+                    } catch (RuntimeException e) {
+                        throw new IllegalStateException(RESOURCE + ":" + n + ": " + e.getMessage(), e);
+                    }
+                }
+                if (b != null) {
+                    try {
+                        b.put(all);
+                    } catch (RuntimeException e) {
+                        throw new IllegalStateException(RESOURCE + ": " + e.getMessage(), e);
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read " + RESOURCE, e);
+            }
+            return all;
+        }
+    }
+
+    private static final class Builder {
+        private final String name;
+        private final int frameWidth, frameHeight, scale;
+        private int[] stats;
+        private double[] motion;
+        private final List<AnimationClip> clips = new ArrayList<>();
+
+        Builder(String[] t) {
+            args(t, 4, 4);
+            name = t[1];
+            frameWidth = Integer.parseInt(t[2]);
+            frameHeight = Integer.parseInt(t[3]);
+            scale = Integer.parseInt(t[4]);
+        }
+
+        void parse(String[] t) {
+            switch (t[0]) {
+                case "stats" -> {
+                    args(t, 4, 4);
+                    stats = new int[] {Integer.parseInt(t[1]), Integer.parseInt(t[2])};
+                    motion = new double[] {Double.parseDouble(t[3]), Double.parseDouble(t[4])};
+                }
+                case "clip" -> {
+                    args(t, 4, 6);
+                    if (t.length == 6) throw new IllegalArgumentException("damage window needs from and to");
+                    int from = t.length > 5 ? Integer.parseInt(t[5]) : -1;
+                    int to = t.length > 5 ? Integer.parseInt(t[6]) : -1;
+                    clips.add(new AnimationClip(t[1], t[2], Integer.parseInt(t[3]), Integer.parseInt(t[4]), from, to));
+                }
+                default -> throw new IllegalArgumentException("unknown entry '" + t[0] + "'");
+            }
+        }
+
+        void put(Map<String, Archetype> all) {
+            if (stats == null) throw new IllegalArgumentException("archetype '" + name + "' has no stats");
+            all.put(name, new Archetype(name, frameWidth, frameHeight, scale, stats, motion, clips));
+        }
+
+        private static void args(String[] t, int min, int max) {
+            int n = t.length - 1;
+            if (n < min || n > max) {
+                throw new IllegalArgumentException("'" + t[0] + "' takes " + (min == max ? min : min + "-" + max)
+                        + " values, got " + n);
+            }
+        }
+    }
+}
@@ -1,93 +1,86 @@
 package game;
 
-import javax.swing.*;
-import java.awt.*;
+import java.nio.ByteBuffer;
 
 public class Boss {
+    static final Archetype TYPE = Archetype.get("boss");
+    static final AnimationClip[] CLIPS = TYPE.clips(State.class);
+
     public double x, y;
+    public double prevX, prevY;
     public double dy = 0;
     public int width, height;
-    public int health = 1000;
-    public int maxHealth = 1000;
+    public int health = TYPE.health;
+    public int maxHealth = TYPE.health;
     public boolean hit = false;
-    public int damage = 30;
     public boolean isAttacking = false;
     public boolean isGrounded = false;
     public boolean facingRight = true;
 
     // sprites
-    private Image idleSheet, walkSheet, attackSheet, currentSheet;
-    private int frameWidth = 96;
-    private int frameHeight = 64;
-    private int frameCount;
-    private int currentFrame = 0;
+    int currentFrame = 0;
     private int animTimer = 0;
-    private int animSpeed = 6;
-    private static final int SCALE = 3;
 
-    private enum State { IDLE, WALK, ATTACK }
-    private State state = State.IDLE;
+    enum State { IDLE, WALK, ATTACK }
+    State state = State.IDLE;
+    private AnimationClip clip = CLIPS[State.IDLE.ordinal()];
+
+    private final Aabb bounds = new Aabb();
+    private final Aabb attackBox = new Aabb();
 
     public double knockbackX = 0;
     private int attackCooldown = 0;
     private int hitCooldown = 0;
     private int movePattern = 0;
-    private boolean enraged = false;
+    boolean enraged = false;
 
-    // --- Damage-timing control ---
+    // --- Damage-timing control (window frames come from the attack clip) ---
     public boolean canDealDamage = false;     // only true in the short damage window
     private boolean hasDealtDamage = false;   // prevent multiple hits per attack
-    private final int ATTACK_START_FRAME = 3; // frame (0-based) where damage starts
-    private final int ATTACK_END_FRAME = 4;   // frame where damage ends
 
     public Boss(int startX, int startY) {
-        this.x = startX;
-        this.y = startY;
-        this.width = frameWidth * SCALE;
-        this.height = frameHeight * SCALE;
-
-        idleSheet = loadImage("/assets/enemy_idle.png");
-        walkSheet = loadImage("/assets/enemy_walk.png");
-        attackSheet = loadImage("/assets/enemy_attack.png");
-
-        setState(State.IDLE);
+        this.width = TYPE.width;
+        this.height = TYPE.height;
+        reset(startX, startY);
     }
 
-    private Image loadImage(String path) {
-        try {
-            java.net.URL url = getClass().getResource(path);
-            if (url != null) return new ImageIcon(url).getImage();
-        } catch (Exception ignored) {}
-        try {
-            return new ImageIcon(path.replaceFirst("/", "")).getImage();
-        } catch (Exception e) {
-            System.err.println("Failed to load boss image: " + path);
-            return null;
-        }
+    /** Puts a reused boss back in its just-spawned state at (startX, startY). */
+    void reset(int startX, int startY) {
+        x = prevX = startX;
+        y = prevY = startY;
+        dy = 0;
+        knockbackX = 0;
+        health = maxHealth = TYPE.health;
+        hit = isAttacking = isGrounded = enraged = canDealDamage = hasDealtDamage = false;
+        facingRight = true;
+        attackCooldown = hitCooldown = movePattern = 0;
+        state = State.IDLE;
+        clip = CLIPS[State.IDLE.ordinal()];
+        currentFrame = animTimer = 0;
     }
 
-    public Rectangle getBounds() {
+
+    public Aabb getBounds() {
         // Damage hitbox - กลางตัว
         int hitW = (int)(width * 0.4);
         int hitH = (int)(height * 0.6);
         int hitX = (int)x + (width - hitW) / 2;
         int hitY = (int)y + (int)(height * 0.4);
-        return new Rectangle(hitX, hitY, hitW, hitH);
+        return bounds.set(hitX, hitY, hitW, hitH);
     }
 
     public void setState(State s) {
         if (state == s) return;
         state = s;
-        switch (s) {
-            case IDLE: currentSheet = idleSheet; frameCount = 8; animSpeed = 10; break;
-            case WALK: currentSheet = walkSheet; frameCount = 10; animSpeed = 8; break;
-            case ATTACK: currentSheet = attackSheet; frameCount = 10; animSpeed = 6; break;
-        }
+        clip = CLIPS[s.ordinal()];
         currentFrame = 0;
         animTimer = 0;
     }
 
     public void update(Player player, java.util.List<Platform> platforms) {
+        prevX = x;
+        prevY = y;
+
         // Enrage mode when health is low
         if (health < maxHealth / 2) {
             enraged = true;
@@ -102,7 +95,7 @@ public class Boss {
         hitCooldown--;
 
         // Boss AI - more aggressive than normal enemies
-        double speed = enraged ? 5 : 3.5;
+        double speed = enraged ? 5 : TYPE.moveSpeed;
         int attackRange = enraged ? 200 : 150;
         int attackDelay = enraged ? 30 : 40;
 
@@ -169,9 +162,9 @@ public class Boss {
         isGrounded = false;
 
         // Collision detection with platforms
-        for (Platform p : platforms) {
-            Rectangle bossRect = getBounds();
-            Rectangle platRect = p.getBounds();
+        for (int i = 0, n = platforms.size(); i < n; i++) {
+            Aabb bossRect = getBounds();
+            Aabb platRect = platforms.get(i).getBounds();
 
             if (bossRect.intersects(platRect)) {
                 // Calculate overlap in each direction
@@ -209,23 +202,23 @@ public class Boss {
 
         // Animation
         animTimer++;
-        if (animTimer >= animSpeed) {
+        if (animTimer >= clip.ticksPerFrame) {
             animTimer = 0;
             currentFrame++;
 
             // --- control damage window only during attack animation ---
             if (state == State.ATTACK) {
                 // open the damage window on specific frames
-                if (currentFrame == ATTACK_START_FRAME) {
+                if (clip.opensDamage(currentFrame)) {
                     canDealDamage = true;
-                } else if (currentFrame > ATTACK_END_FRAME) {
+                } else if (clip.closesDamage(currentFrame)) {
                     canDealDamage = false;
                 }
             } else {
                 canDealDamage = false;
             }
 
-            if (currentFrame >= frameCount) {
+            if (currentFrame >= clip.frames) {
                 currentFrame = 0;
                 if (state == State.ATTACK) {
                     // attack animation finished
@@ -243,7 +236,7 @@ public class Boss {
         }
     }
 
-    public Rectangle getAttackBox() {
+    public Aabb getAttackBox() {
         // Attack box - bigger than damage box
         int w = (int)(width * 0.8);
         int h = (int)(height * 0.8);
@@ -251,101 +244,61 @@ public class Boss {
         int forwardOffset = (int)(width * 0.1);
         int ax = (int)x + (width - w) / 2 + (facingRight ? forwardOffset : -forwardOffset);
         int ay = (int)y + (int)(height * 0.1);
-        return new Rectangle(ax, ay, w, h);
+        return attackBox.set(ax, ay, w, h);
     }
 
-    public void draw(Graphics2D g) {
-        drawHealthBar(g);
-
-        if (currentSheet == null) {
-            g.setColor(new Color(150, 0, 0));
-            g.fillRect((int)x, (int)y, width, height);
-            return;
-        }
-
-        int sx = currentFrame * frameWidth;
-        int sy = 0;
-        int sw = frameWidth;
-        int sh = frameHeight;
-
-        // Hit flash effect
-        Composite oldComposite = g.getComposite();
-        if (hit) {
-            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.7f));
-            g.setColor(new Color(255, 0, 0, 100));
-            g.fillRect((int)x, (int)y, width, height);
-        }
-
-        // Enrage visual effect
-        if (enraged) {
-            g.setColor(new Color(255, 0, 0, 50));
-            g.fillOval((int)x - 20, (int)y - 20, width + 40, height + 40);
-        }
-
-        // draw with facing
-        if (facingRight) {
-            g.drawImage(currentSheet, (int)x, (int)y, (int)x + width, (int)y + height,
-                    sx, sy, sx + sw, sy + sh, null);
-        } else {
-            // Flip sprite when facing left
-            g.drawImage(currentSheet, (int)x + width, (int)y, (int)x, (int)y + height,
-                    sx, sy, sx + sw, sy + sh, null);
-        }
-
-        g.setComposite(oldComposite);
+    // ============================ Checkpoint ============================
+    static final int SAVE_BYTES = 6 * 8 + 5 * 4 + 2 * 2 + 2;
 
-        if (hit) {
-            g.setColor(new Color(255, 100, 100, 100));
-            g.drawOval((int)x - 10, (int)y - 10, width + 20, height + 20);
-        }
+    void save(ByteBuffer b) {
+        b.putDouble(x).putDouble(y).putDouble(prevX).putDouble(prevY).putDouble(dy).putDouble(knockbackX);
+        b.putInt(health).putInt(maxHealth).putInt(attackCooldown).putInt(hitCooldown).putInt(movePattern);
+        b.putShort((short) currentFrame).putShort((short) animTimer);
+        b.put((byte) state.ordinal());
+        b.put((byte) ((hit ? 1 : 0) | (isAttacking ? 2 : 0) | (isGrounded ? 4 : 0) | (facingRight ? 8 : 0)
+                | (enraged ? 16 : 0) | (canDealDamage ? 32 : 0) | (hasDealtDamage ? 64 : 0)));
+    }
 
-        // Debug: draw damage window visibility (optional)
-        if (false) {
-            if (canDealDamage) {
-                g.setColor(new Color(255, 0, 0, 120));
-                Rectangle ab = getAttackBox();
-                g.fillRect(ab.x, ab.y, ab.width, ab.height);
-            } else {
-                // optional: draw attack box lightly
-                g.setColor(new Color(255, 0, 0, 40));
-                Rectangle ab = getAttackBox();
-                g.drawRect(ab.x, ab.y, ab.width, ab.height);
-            }
-        }
+    void load(ByteBuffer b) {
+        x = b.getDouble();
+        y = b.getDouble();
+        prevX = b.getDouble();
+        prevY = b.getDouble();
+        dy = b.getDouble();
+        knockbackX = b.getDouble();
+        health = b.getInt();
+        maxHealth = b.getInt();
+        attackCooldown = b.getInt();
+        hitCooldown = b.getInt();
+        movePattern = b.getInt();
+        currentFrame = b.getShort();
+        animTimer = b.getShort();
+        state = State.values()[b.get()];
+        clip = CLIPS[state.ordinal()];
+        int flags = b.get();
+        hit = (flags & 1) != 0;
+        isAttacking = (flags & 2) != 0;
+        isGrounded = (flags & 4) != 0;
+        facingRight = (flags & 8) != 0;
+        enraged = (flags & 16) != 0;
+        canDealDamage = (flags & 32) != 0;
+        hasDealtDamage = (flags & 64) != 0;
     }
 
-    private void drawHealthBar(Graphics2D g) {
-        int barWidth = width;
-        int barHeight = 12;
-        int barX = (int)x;
-        int barY = (int)y - 25;
-
-        // Background
-        g.setColor(new Color(50, 50, 50, 200));
-        g.fillRect(barX, barY, barWidth, barHeight);
-
-        // Health bar
-        int currentBarWidth = (int)((double)health / maxHealth * barWidth);
-
-        Color healthColor = enraged ? new Color(255, 0, 0) : new Color(200, 0, 0);
-        Color healthColor2 = enraged ? new Color(255, 100, 0) : new Color(255, 100, 0);
-
-        GradientPaint gp = new GradientPaint(
-                barX, barY, healthColor,
-                barX + currentBarWidth, barY, healthColor2);
-        g.setPaint(gp);
-        g.fillRect(barX, barY, currentBarWidth, barHeight);
-
-        // Border
-        g.setColor(new Color(255, 215, 0));
-        g.drawRect(barX, barY, barWidth, barHeight);
-
-        // Boss label
-        g.setFont(new Font("Arial", Font.BOLD, 14));
-        g.setColor(enraged ? new Color(255, 50, 50) : new Color(255, 215, 0));
-        String bossText = enraged ? "BOSS - ENRAGED!" : "BOSS";
-        int textWidth = g.getFontMetrics().stringWidth(bossText);
-        g.drawString(bossText, barX + barWidth/2 - textWidth/2, barY - 5);
+    // Copy draw state for the render snapshot
+    void copyFrom(Boss o) {
+        x = o.x;
+        y = o.y;
+        prevX = o.prevX;
+        prevY = o.prevY;
+        health = o.health;
+        hit = o.hit;
+        enraged = o.enraged;
+        facingRight = o.facingRight;
+        canDealDamage = o.canDealDamage;
+        state = o.state;
+        clip = o.clip;
+        currentFrame = o.currentFrame;
     }
 
     // Called by player when hitting the boss
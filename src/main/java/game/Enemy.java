@@ -1,119 +1,127 @@
 package game;
 
-import javax.swing.*;
-import java.awt.*;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public class Enemy {
+    static final Archetype TYPE = Archetype.get("enemy");
+    static final AnimationClip[] CLIPS = TYPE.clips(State.class);
+
     public double x, y;
+    public double prevX, prevY;
     public double dy = 0;
     public int width, height;
-    public int health = 100;
+    public int health = TYPE.health;
     public boolean hit = false;
-    public int damage = 10;
     public boolean isAttacking = false;
     public boolean isGrounded = false;
     public boolean facingRight = true;
     public boolean isActive = false; // ✅ สำหรับระบบโหลดเฉพาะเมื่อผู้เล่นเข้าใกล้
 
-    // Sprite animation
-    private Image idleSheet, walkSheet, attackSheet, currentSheet;
-    private int frameWidth = 96;
-    private int frameHeight = 64;
-    private int frameCount;
-    private int currentFrame = 0;
+    // Sprite animation (clip ใช้ร่วมกันทุกตัว เก็บแค่ frame กับตัวนับ tick)
+    int currentFrame = 0;
     private int animTimer = 0;
-    private int animSpeed = 6;
-    private static final int SCALE = 2;
+    public static final int ACTIVATION_RANGE = 900;
+
+    enum State { IDLE, WALK, ATTACK }
+    State state = State.IDLE;
+    private AnimationClip clip = CLIPS[State.IDLE.ordinal()];
 
-    private enum State { IDLE, WALK, ATTACK }
-    private State state = State.IDLE;
+    private final Aabb bounds = new Aabb();
+    private final Aabb attackBox = new Aabb();
+    private final Aabb footCheck = new Aabb();
 
     public double knockbackX = 0;
     private int attackCooldown = 0;
     private int hitCooldown = 0;
-    private final double moveSpeed = 2.0;
-    private final double jumpPower = -12; // ✅ ความแรงกระโดด
+    // tick ล่าสุดที่ถูก step (GameWorld ตั้งให้) -> ตัวที่อยู่นอกแถบ activation ไม่ถูก step เลย
+    long steppedAt;
+    // record ใน chunk ที่ให้กำเนิดตัวนี้ (-1 = ไม่ได้มาจาก chunk) -> GameWorld ใช้กันเกิดซ้ำ
+    int spawnChunk = -1, spawnRecord;
 
     public Enemy(int startX, int startY) {
-        this.x = startX;
-        this.y = startY;
-        this.width = frameWidth * SCALE;
-        this.height = frameHeight * SCALE;
-
-        idleSheet = loadImage("/assets/enemy_idle.png");
-        walkSheet = loadImage("/assets/enemy_walk.png");
-        attackSheet = loadImage("/assets/enemy_attack.png");
-
-        setState(State.IDLE);
+        this.width = TYPE.width;
+        this.height = TYPE.height;
+        reset(startX, startY);
     }
 
-    private Image loadImage(String resourcePath) {
-        try {
-            java.net.URL url = getClass().getResource(resourcePath);
-            if (url != null) return new ImageIcon(url).getImage();
-        } catch (Exception ignored) {}
-        try {
-            return new ImageIcon(resourcePath.replaceFirst("/", "")).getImage();
-        } catch (Exception e) {
-            System.err.println("Failed to load enemy image: " + resourcePath);
-            return null;
-        }
+    /** Puts a recycled enemy back in its just-spawned state at (startX, startY). */
+    void reset(int startX, int startY) {
+        x = prevX = startX;
+        y = prevY = startY;
+        dy = 0;
+        knockbackX = 0;
+        health = TYPE.health;
+        hit = isAttacking = isGrounded = isActive = false;
+        facingRight = true;
+        attackCooldown = hitCooldown = 0;
+        steppedAt = 0;
+        spawnChunk = -1;
+        spawnRecord = 0;
+        state = State.IDLE;
+        clip = CLIPS[State.IDLE.ordinal()];
+        currentFrame = animTimer = 0;
     }
 
-    public Rectangle getBounds() {
+
+    public Aabb getBounds() {
         int hitW = (int)(width * 0.5);
         int hitH = (int)(height * 0.55);
         int hitX = (int)x + (width - hitW) / 2;
         int hitY = (int)y + (int)(height * 0.45);
-        return new Rectangle(hitX, hitY, hitW, hitH);
+        return bounds.set(hitX, hitY, hitW, hitH);
     }
 
-    public Rectangle getAttackBox() {
+    public Aabb getAttackBox() {
         int w = (int)(width * 0.85);
         int h = (int)(height * 0.65);
         int ax = (int)x + (width - w) / 2;
         int ay = (int)y + (int)(height * 0.5);
-        return new Rectangle(ax, ay, w, h);
+        return attackBox.set(ax, ay, w, h);
     }
 
     private void setState(State s) {
         if (state == s) return;
         state = s;
-        switch (s) {
-            case IDLE -> { currentSheet = idleSheet; frameCount = 8; animSpeed = 8; }
-            case WALK -> { currentSheet = walkSheet; frameCount = 10; animSpeed = 6; }
-            case ATTACK -> { currentSheet = attackSheet; frameCount = 10; animSpeed = 2; }
-        }
+        clip = CLIPS[s.ordinal()];
         currentFrame = 0;
         animTimer = 0;
     }
 
     public void update(Player player, List<Platform> platforms) {
+        update(player.x, player.width, platforms);
+    }
+
+    /**
+     * One AI/physics tick against a fixed view of the player and terrain. Writes only this
+     * enemy's own fields, so different enemies can be updated concurrently (see EnemyStepper).
+     */
+    public void update(double playerX, int playerWidth, List<Platform> platforms) {
+        prevX = x;
+        prevY = y;
         int centerX = (int)x + width / 2;
-        int pCenter = (int)player.x + player.width / 2;
+        int pCenter = (int)playerX + playerWidth / 2;
         int distance = Math.abs(centerX - pCenter);
         attackCooldown--;
         hitCooldown--;
 
         // ✅ ระบบ Active เฉพาะเมื่อผู้เล่นอยู่ในระยะ
-        int activationRange = 900;
-        isActive = distance < activationRange;
+        isActive = distance < ACTIVATION_RANGE;
 
         if (!isActive) return; // ❌ อยู่นอกระยะ ไม่ต้องอัปเดต
 
         // ✅ ตรวจด้านหน้า
         int detectionRange = 2000;
         boolean playerInFront =
-                (facingRight && player.x > x && distance < detectionRange) ||
-                        (!facingRight && player.x < x && distance < detectionRange);
+                (facingRight && playerX > x && distance < detectionRange) ||
+                        (!facingRight && playerX < x && distance < detectionRange);
 
         if (!isAttacking) {
             if (playerInFront) {
                 // เดินเข้าหาผู้เล่น
                 if (distance > 120) {
                     setState(State.WALK);
-                    x += facingRight ? moveSpeed : -moveSpeed;
+                    x += facingRight ? TYPE.moveSpeed : -TYPE.moveSpeed;
                 } else {
                     // ระยะโจมตี
                     if (attackCooldown <= 0) {
@@ -126,17 +134,69 @@ public class Enemy {
                 }
             } else {
                 // ไม่เห็นผู้เล่น → หันหาผู้เล่น
-                facingRight = player.x > x;
+                facingRight = playerX > x;
                 setState(State.IDLE);
             }
         }
 
         // ✅ ตรวจขอบ platform เพื่อกระโดด
         if (isGrounded && willFallOffEdge(platforms)) {
-            dy = jumpPower;
+            dy = TYPE.jumpPower;
             isGrounded = false;
         }
 
+        move(platforms);
+    }
+
+    /**
+     * Horde-mode tick: instead of probing the terrain, follow the move stored in the flow
+     * field cell under the feet; attack when close. Always active while updated.
+     */
+    public void update(FlowField field, double playerX, int playerWidth, List<Platform> platforms) {
+        prevX = x;
+        prevY = y;
+        int centerX = (int)x + width / 2;
+        int pCenter = (int)playerX + playerWidth / 2;
+        int distance = Math.abs(centerX - pCenter);
+        attackCooldown--;
+        hitCooldown--;
+        isActive = true;
+
+        if (!isAttacking) {
+            if (distance <= 120) {
+                facingRight = pCenter > centerX;
+                if (attackCooldown <= 0) {
+                    setState(State.ATTACK);
+                    isAttacking = true;
+                    attackCooldown = 150;
+                } else {
+                    setState(State.IDLE);
+                }
+            } else {
+                // กลางอากาศ -> ไปทางเดิมต่อ
+                byte move = isGrounded ? field.sample(centerX, (int)y + height) : FlowField.NONE;
+                switch (move) {
+                    case FlowField.LEFT -> facingRight = false;
+                    case FlowField.RIGHT -> facingRight = true;
+                    case FlowField.JUMP_LEFT, FlowField.JUMP_RIGHT -> {
+                        facingRight = move == FlowField.JUMP_RIGHT;
+                        dy = TYPE.jumpPower;
+                        isGrounded = false;
+                    }
+                    default -> {
+                        if (isGrounded) facingRight = pCenter > centerX;
+                    }
+                }
+                setState(State.WALK);
+                x += facingRight ? TYPE.moveSpeed : -TYPE.moveSpeed;
+            }
+        }
+
+        move(platforms);
+    }
+
+    // gravity, knockback, ชนพื้น และ animation (ใช้ร่วมกันทั้งสองโหมด)
+    private void move(List<Platform> platforms) {
         // ✅ Gravity
         dy += 0.6;
         if (dy > 20) dy = 20;
@@ -150,18 +210,18 @@ public class Enemy {
             knockbackX = 0;
         }
 
-        // ✅ Collision ตรวจพื้น
+        // ✅ Collision ตรวจพื้น (อ่าน field ของ platform ตรงๆ: getBounds() เขียนกล่องที่แชร์กันทุกตัว)
         isGrounded = false;
-        for (Platform p : platforms) {
-            Rectangle enemyRect = getBounds();
-            Rectangle platRect = p.getBounds();
+        for (int i = 0, n = platforms.size(); i < n; i++) {
+            Aabb enemyRect = getBounds();
+            Platform plat = platforms.get(i);
 
-            if (enemyRect.intersects(platRect)) {
-                double overlapTop = (y + height) - platRect.y;
-                double overlapBottom = (platRect.y + platRect.height) - y;
+            if (enemyRect.intersects(plat.x, plat.y, plat.width, plat.height)) {
+                double overlapTop = (y + height) - plat.y;
+                double overlapBottom = (plat.y + plat.height) - y;
 
                 if (overlapTop < overlapBottom && dy > 0) {
-                    y = platRect.y - height;
+                    y = plat.y - height;
                     dy = 0;
                     isGrounded = true;
                 }
@@ -170,10 +230,10 @@ public class Enemy {
 
         // ✅ Animation update
         animTimer++;
-        if (animTimer >= animSpeed) {
+        if (animTimer >= clip.ticksPerFrame) {
             animTimer = 0;
             currentFrame++;
-            if (currentFrame >= frameCount) {
+            if (currentFrame >= clip.frames) {
                 currentFrame = 0;
                 if (state == State.ATTACK) {
                     isAttacking = false;
@@ -189,10 +249,11 @@ public class Enemy {
     private boolean willFallOffEdge(List<Platform> platforms) {
         double frontX = facingRight ? x + width + 5 : x - 5;
         double checkY = y + height + 5;
-        Rectangle footCheck = new Rectangle((int)frontX, (int)checkY, 4, 4);
+        footCheck.set((int)frontX, (int)checkY, 4, 4);
 
-        for (Platform p : platforms) {
-            if (footCheck.intersects(p.getBounds())) return false;
+        for (int i = 0, n = platforms.size(); i < n; i++) {
+            Platform p = platforms.get(i);
+            if (footCheck.intersects(p.x, p.y, p.width, p.height)) return false;
         }
         return true;
     }
@@ -201,45 +262,70 @@ public class Enemy {
         this.knockbackX = value;
     }
 
-    public void draw(Graphics2D g) {
-        if (!isActive) return; // ❌ ไม่อยู่ในระยะ = ไม่วาด
-
-        if (currentSheet == null) {
-            g.setColor(Color.RED);
-            g.fillRect((int)x, (int)y, width, height);
-            return;
-        }
-
-        int sx = currentFrame * frameWidth;
-        int sy = 0;
-        int sw = frameWidth;
-        int sh = frameHeight;
-
-        if (!facingRight) {
-            g.drawImage(currentSheet,
-                    (int)x + width, (int)y, (int)x, (int)y + height,
-                    sx, sy, sx + sw, sy + sh, null);
-        } else {
-            g.drawImage(currentSheet,
-                    (int)x, (int)y, (int)x + width, (int)y + height,
-                    sx, sy, sx + sw, sy + sh, null);
+    /**
+     * Counts the cooldowns down for the ticks missed outside the activation band, as if this
+     * enemy had been stepped all along, and marks it stepped at tick. Cooldowns are only compared
+     * against 0, so they stop at -1 instead of running towards overflow.
+     */
+    void catchUp(long tick) {
+        long missed = tick - steppedAt - 1;
+        if (missed > 0) {
+            attackCooldown = (int) Math.max(attackCooldown - missed, -1);
+            hitCooldown = (int) Math.max(hitCooldown - missed, -1);
         }
+        steppedAt = tick;
+    }
 
-        // ✅ Debug hitboxes
-        if (false) {
-            g.setColor(new Color(0, 255, 0, 150));
-            Rectangle bounds = getBounds();
-            g.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
+    // ============================ Checkpoint ============================
+    static final int SAVE_BYTES = 7 * 8 + 5 * 4 + 2 * 2 + 2;
+
+    void save(ByteBuffer b) {
+        b.putDouble(x).putDouble(y).putDouble(prevX).putDouble(prevY).putDouble(dy).putDouble(knockbackX);
+        b.putInt(health).putInt(attackCooldown).putInt(hitCooldown).putLong(steppedAt);
+        b.putInt(spawnChunk).putInt(spawnRecord);
+        b.putShort((short) currentFrame).putShort((short) animTimer);
+        b.put((byte) state.ordinal());
+        b.put((byte) ((hit ? 1 : 0) | (isAttacking ? 2 : 0) | (isGrounded ? 4 : 0)
+                | (facingRight ? 8 : 0) | (isActive ? 16 : 0)));
+    }
 
-            if (isAttacking) {
-                g.setColor(new Color(255, 0, 0, 150));
-                Rectangle attackBox = getAttackBox();
-                g.drawRect(attackBox.x, attackBox.y, attackBox.width, attackBox.height);
-            }
+    void load(ByteBuffer b) {
+        x = b.getDouble();
+        y = b.getDouble();
+        prevX = b.getDouble();
+        prevY = b.getDouble();
+        dy = b.getDouble();
+        knockbackX = b.getDouble();
+        health = b.getInt();
+        attackCooldown = b.getInt();
+        hitCooldown = b.getInt();
+        steppedAt = b.getLong();
+        spawnChunk = b.getInt();
+        spawnRecord = b.getInt();
+        currentFrame = b.getShort();
+        animTimer = b.getShort();
+        state = State.values()[b.get()];
+        clip = CLIPS[state.ordinal()];
+        int flags = b.get();
+        hit = (flags & 1) != 0;
+        isAttacking = (flags & 2) != 0;
+        isGrounded = (flags & 4) != 0;
+        facingRight = (flags & 8) != 0;
+        isActive = (flags & 16) != 0;
+    }
 
-            g.setColor(Color.WHITE);
-            g.setFont(new Font("Arial", Font.PLAIN, 10));
-            g.drawString("HP:" + health, (int)x, (int)y - 5);
-        }
+    // สำเนาสถานะที่ใช้วาด สำหรับ render snapshot
+    void copyFrom(Enemy o) {
+        x = o.x;
+        y = o.y;
+        prevX = o.prevX;
+        prevY = o.prevY;
+        health = o.health;
+        isActive = o.isActive;
+        isAttacking = o.isAttacking;
+        facingRight = o.facingRight;
+        state = o.state;
+        clip = o.clip;
+        currentFrame = o.currentFrame;
     }
 }
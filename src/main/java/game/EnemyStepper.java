@@ -0,0 +1,84 @@
+package game;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Phase one of the enemy tick: AI, gravity, knockback, terrain collision and animation for
+ * every active enemy. Large crowds are split into batches on the common ForkJoinPool; small
+ * ones run serially on the sim thread. Each enemy reads only a snapshot of the player (x and
+ * width taken before the phase) and the platform list, which is never modified in place, and
+ * writes only its own fields, so the result is identical to the serial loop. Everything shared
+ * (spatial index, combat, removals) is phase two and stays serial in GameWorld.
+ *
+ * In horde mode every enemy samples the shared FlowField, which is also read-only here.
+ *
+ * Config: -Dgame.parallel.threshold=N (default 256, active enemies before going parallel),
+ *         -Dgame.parallel.batch=N (default 64, enemies per task).
+ */
+final class EnemyStepper {
+    private static final int THRESHOLD = Integer.getInteger("game.parallel.threshold", 256);
+    private static final int BATCH = Math.max(1, Integer.getInteger("game.parallel.batch", 64));
+
+    private static final Metrics.Gauge G_BATCHES = Metrics.gauge("sim.enemies.batches");
+
+    private List<Enemy> enemies;
+    private List<Platform> platforms;
+    private FlowField field;
+    private double playerX;
+    private int playerWidth;
+    private int levelRight;
+
+    /** Updates every enemy in the list; field is null outside horde mode. */
+    void step(List<Enemy> enemies, Player player, List<Platform> platforms, FlowField field, int levelRight) {
+        this.enemies = enemies;
+        this.platforms = platforms;
+        this.field = field;
+        this.playerX = player.x;
+        this.playerWidth = player.width;
+        this.levelRight = levelRight;
+
+        int n = enemies.size();
+        if (n < THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            G_BATCHES.set(n > 0 ? 1 : 0);
+            update(0, n);
+        } else {
+            G_BATCHES.set((n + BATCH - 1) / BATCH);
+            ForkJoinPool.commonPool().invoke(new Batch(0, n));
+        }
+        this.enemies = null;
+        this.platforms = null;
+        this.field = null;
+    }
+
+    private void update(int from, int to) {
+        for (int i = from; i < to; i++) {
+            Enemy e = enemies.get(i);
+            if (field != null) e.update(field, playerX, playerWidth, platforms);
+            else e.update(playerX, playerWidth, platforms);
+            e.x = Math.max(0, Math.min(e.x, levelRight - e.width));
+        }
+    }
+
+    private final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+
+        Batch(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH) {
+                update(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(from, mid), new Batch(mid, to));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shared path field toward the player for horde mode. The resident terrain is cut into CELL
+ * sized cells; a cell is "standing" if a platform top lies at its bottom edge. Moves between
+ * standing cells (walk, step, drop off an edge, jump up or across a gap) form a graph that is
+ * rebuilt only when the platform list changes. A breadth-first search backwards from the
+ * player's cell then stores, for every standing cell, the first move of the shortest route.
+ * Enemies just sample the cell under their feet instead of probing the terrain themselves.
+ *
+ * The search reruns when the player reaches another cell, at most every REFRESH_TICKS ticks.
+ * Sampling is read-only, so enemies can sample from several threads during the enemy phase.
+ */
+final class FlowField {
+    static final int CELL = 32;
+
+    // คำสั่งต่อ cell
+    static final byte NONE = 0;       // ไม่มีทาง / ไม่ใช่พื้น -> เดินเข้าหาผู้เล่นตรงๆ
+    static final byte LEFT = 1;
+    static final byte RIGHT = 2;
+    static final byte JUMP_LEFT = 3;
+    static final byte JUMP_RIGHT = 4;
+    static final byte HERE = 5;       // อยู่ cell เดียวกับผู้เล่น
+
+    static final int REFRESH_TICKS = 6;
+
+    // ศัตรูกระโดดได้สูง ~120 px (jumpPower -12, gravity 0.6)
+    private static final int STEP_ROWS = 1;
+    private static final int JUMP_UP_ROWS = 3;
+    private static final int JUMP_UP_COLS = 2;
+    private static final int GAP_COLS = 3;
+
+    private final int rows = GameWorld.HEIGHT / CELL + 1;
+
+    private List<Platform> terrain;
+    private int originX, cols;
+    private boolean[] standing = new boolean[0];
+
+    // กราฟย้อนกลับแบบ CSR: ขอบ from -> to เก็บไว้ที่ปลาย to
+    private int[] revStart = new int[1];
+    private int[] revFrom = new int[0];
+    private byte[] revKind = new byte[0];
+    private int edgeCount;
+    private int[] edgeFrom = new int[256], edgeTo = new int[256];
+    private byte[] edgeKind = new byte[256];
+
+    private int[] dist = new int[0];
+    private byte[] action = new byte[0];
+    private int[] queue = new int[0];
+    private int goal = -1;
+    private long solvedAt = Long.MIN_VALUE;
+    private long solves;
+
+    /** Rebuilds the graph if the terrain changed and re-solves toward the player if needed. */
+    void update(List<Platform> platforms, double playerCenterX, double playerFeetY, long tick) {
+        boolean rebuilt = false;
+        if (platforms != terrain) {
+            build(platforms);
+            rebuilt = true;
+        }
+        int target = standingBelow(column((int) playerCenterX), row((int) playerFeetY));
+        if (target < 0) target = goal; // ลอยอยู่กลางอากาศ -> ใช้ cell เดิม
+        if (target < 0) return;
+        if (rebuilt || (target != goal && tick - solvedAt >= REFRESH_TICKS)) {
+            solve(target);
+            solvedAt = tick;
+        }
+    }
+
+    int goal() {
+        return goal;
+    }
+
+    long solvedAt() {
+        return solvedAt;
+    }
+
+    /** Rebuilds for platforms and re-solves toward goal as of tick solvedAt; used by checkpoints. */
+    void restore(List<Platform> platforms, int goal, long solvedAt) {
+        build(platforms);
+        if (goal >= 0 && goal < cols * rows) solve(goal);
+        this.solvedAt = solvedAt;
+    }
+
+    /** Move for an enemy whose feet are at (x, feetY); tolerates standing one cell past an edge. */
+    byte sample(int x, int feetY) {
+        int c = column(x), r = row(feetY);
+        if (r < 0 || r >= rows) return NONE;
+        for (int d = 0; d <= 1; d++) {
+            int a = cell(c - d, r), b = cell(c + d, r);
+            if (a >= 0 && standing[a]) return action[a];
+            if (b >= 0 && standing[b]) return action[b];
+        }
+        return NONE;
+    }
+
+    long solves() {
+        return solves;
+    }
+
+    // ============================ Grid ============================
+    private int column(int x) {
+        return Math.floorDiv(x - originX, CELL);
+    }
+
+    // แถวของ cell ที่ "ยืน" บนพื้นซึ่งผิวบนอยู่ที่ y
+    private static int row(int feetY) {
+        return Math.floorDiv(feetY - 1, CELL);
+    }
+
+    private int cell(int c, int r) {
+        return c < 0 || c >= cols || r < 0 || r >= rows ? -1 : c * rows + r;
+    }
+
+    private boolean isStanding(int c, int r) {
+        int i = cell(c, r);
+        return i >= 0 && standing[i];
+    }
+
+    private int standingBelow(int c, int r) {
+        if (c < 0 || c >= cols) return -1;
+        for (int rr = Math.max(r, 0); rr < rows; rr++) {
+            if (standing[c * rows + rr]) return c * rows + rr;
+        }
+        return -1;
+    }
+
+    private void build(List<Platform> platforms) {
+        terrain = platforms;
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        for (int i = 0; i < platforms.size(); i++) {
+            Platform p = platforms.get(i);
+            minX = Math.min(minX, p.x);
+            maxX = Math.max(maxX, p.x + p.width);
+        }
+        if (minX > maxX) {
+            cols = 0;
+        } else {
+            originX = Math.floorDiv(minX, CELL) * CELL;
+            cols = Math.floorDiv(maxX - originX, CELL) + 1;
+        }
+        int n = cols * rows;
+        if (standing.length < n) {
+            standing = new boolean[n];
+            dist = new int[n];
+            action = new byte[n];
+            queue = new int[n];
+        } else {
+            Arrays.fill(standing, 0, n, false);
+        }
+
+        // cell ยืนได้ = มี platform คลุมกลาง cell และผิวบนอยู่ในแถวนั้น
+        for (int i = 0; i < platforms.size(); i++) {
+            Platform p = platforms.get(i);
+            int r = row(p.y);
+            if (r < 0 || r >= rows) continue;
+            int c0 = Math.max(0, column(p.x)), c1 = Math.min(cols - 1, column(p.x + p.width - 1));
+            for (int c = c0; c <= c1; c++) {
+                int mid = originX + c * CELL + CELL / 2;
+                if (mid >= p.x && mid < p.x + p.width) standing[c * rows + r] = true;
+            }
+        }
+
+        edgeCount = 0;
+        for (int c = 0; c < cols; c++) {
+            for (int r = 0; r < rows; r++) {
+                if (standing[c * rows + r]) addMoves(c, r);
+            }
+        }
+
+        // จัดขอบตามปลายทาง (counting sort) -> BFS ย้อนจากผู้เล่นได้ตรงๆ
+        if (revStart.length < n + 1) revStart = new int[n + 1];
+        Arrays.fill(revStart, 0, n + 1, 0);
+        for (int e = 0; e < edgeCount; e++) revStart[edgeTo[e] + 1]++;
+        for (int i = 0; i < n; i++) revStart[i + 1] += revStart[i];
+        if (revFrom.length < edgeCount) {
+            revFrom = new int[edgeCount];
+            revKind = new byte[edgeCount];
+        }
+        int[] fill = Arrays.copyOf(revStart, n);
+        for (int e = 0; e < edgeCount; e++) {
+            int at = fill[edgeTo[e]]++;
+            revFrom[at] = edgeFrom[e];
+            revKind[at] = edgeKind[e];
+        }
+        goal = -1;
+    }
+
+    private void addMoves(int c, int r) {
+        int from = c * rows + r;
+        for (int dir = -1; dir <= 1; dir += 2) {
+            byte walk = dir < 0 ? LEFT : RIGHT;
+            byte jump = dir < 0 ? JUMP_LEFT : JUMP_RIGHT;
+            int c2 = c + dir;
+            if (c2 < 0 || c2 >= cols) continue;
+
+            // เดิน/ก้าวขึ้นลงขั้นเล็ก หรือเดินตกขอบลงไปพื้นข้างล่าง
+            boolean walked = false;
+            for (int d = 0; d <= STEP_ROWS && !walked; d++) {
+                if (isStanding(c2, r - d)) { addEdge(from, cell(c2, r - d), walk); walked = true; }
+                else if (d > 0 && isStanding(c2, r + d)) { addEdge(from, cell(c2, r + d), walk); walked = true; }
+            }
+            if (!walked) {
+                int below = standingBelow(c2, r + STEP_ROWS + 1);
+                if (below >= 0) addEdge(from, below, walk);
+            }
+
+            // กระโดดขึ้น platform ที่สูงกว่า
+            for (int dc = 1; dc <= JUMP_UP_COLS; dc++) {
+                for (int up = STEP_ROWS + 1; up <= JUMP_UP_ROWS; up++) {
+                    if (isStanding(c + dir * dc, r - up)) addEdge(from, cell(c + dir * dc, r - up), jump);
+                }
+            }
+
+            // กระโดดข้ามหลุม (ถัดไปไม่มีพื้นระดับเดียวกัน)
+            if (!walked) {
+                for (int dc = 2; dc <= GAP_COLS; dc++) {
+                    for (int d = -STEP_ROWS; d <= STEP_ROWS; d++) {
+                        if (isStanding(c + dir * dc, r + d)) addEdge(from, cell(c + dir * dc, r + d), jump);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addEdge(int from, int to, byte kind) {
+        if (edgeCount == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+            edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+            edgeKind = Arrays.copyOf(edgeKind, edgeCount * 2);
+        }
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeKind[edgeCount++] = kind;
+    }
+
+    // BFS ย้อนจากผู้เล่น: cell แรกที่ไปถึง u ผ่านขอบ u -> v ได้ระยะสั้นสุด -> เก็บท่าของขอบนั้น
+    private void solve(int target) {
+        int n = cols * rows;
+        Arrays.fill(dist, 0, n, Integer.MAX_VALUE);
+        Arrays.fill(action, 0, n, NONE);
+        goal = target;
+        dist[target] = 0;
+        action[target] = HERE;
+        int head = 0, tail = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int v = queue[head++];
+            int next = dist[v] + 1;
+            for (int e = revStart[v], end = revStart[v + 1]; e < end; e++) {
+                int u = revFrom[e];
+                if (dist[u] != Integer.MAX_VALUE) continue;
+                dist[u] = next;
+                action[u] = revKind[e];
+                queue[tail++] = u;
+            }
+        }
+        solves++;
+    }
+}
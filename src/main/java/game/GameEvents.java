@@ -0,0 +1,93 @@
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for game activity, so hitches in a recording can be lined up with
+ * what the game was doing. All are disabled by default: while off, begin/shouldCommit are a flag
+ * check and the simulation reuses its event objects, so nothing is allocated.
+ *
+ * Turn them on for a live session with the settings file in jfr/:
+ *   jcmd <pid> JFR.start settings=jfr/game.jfc filename=session.jfr
+ */
+public final class GameEvents {
+    private static final String CATEGORY = "Skeleton Killer";
+
+    private GameEvents() {}
+
+    @Name("game.Tick")
+    @Label("Simulation Tick")
+    @Category({CATEGORY, "Simulation"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class TickEvent extends Event {
+        @Label("Tick") public long tick;
+        @Label("Enemies") public int enemies;
+        @Label("Active Enemies") public int activeEnemies;
+        @Label("Particles") public int particles;
+        @Label("Potions") public int potions;
+        @Label("Score") public int score;
+    }
+
+    @Name("game.Spawn")
+    @Label("Spawn")
+    @Category({CATEGORY, "Simulation"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class SpawnEvent extends Event {
+        @Label("Kind") public String kind;
+        @Label("X") public int x;
+        @Label("Y") public int y;
+    }
+
+    @Name("game.Hit")
+    @Label("Hit")
+    @Category({CATEGORY, "Combat"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class HitEvent extends Event {
+        @Label("Target") public String target;
+        @Label("Damage") public int damage;
+        @Label("Health Left") public int healthLeft;
+    }
+
+    @Name("game.Kill")
+    @Label("Kill")
+    @Category({CATEGORY, "Combat"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class KillEvent extends Event {
+        @Label("Target") public String target;
+        @Label("Score") public int score;
+    }
+
+    @Name("game.Potion")
+    @Label("Potion")
+    @Category({CATEGORY, "Pickups"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class PotionEvent extends Event {
+        @Label("Action") public String action;
+        @Label("Type") public String type;
+        @Label("X") public int x;
+        @Label("Y") public int y;
+    }
+
+    @Name("game.AssetLoad")
+    @Label("Asset Load")
+    @Category({CATEGORY, "Assets"})
+    @Enabled(false)
+    public static final class AssetLoadEvent extends Event {
+        @Label("Path") public String path;
+        @Label("Width") public int width;
+        @Label("Height") public int height;
+        @Label("Size") @DataAmount public long bytes;
+        @Label("Found") public boolean found;
+    }
+}
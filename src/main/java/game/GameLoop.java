@@ -0,0 +1,106 @@
+package game;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep simulation thread.
+ * Runs the tick callback exactly TICKS_PER_SECOND times per second of wall time (accumulator),
+ * and asks for a new frame independently at the display rate.
+ */
+public class GameLoop implements Runnable {
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+
+    // ถ้า sim ช้ากว่าเวลาจริงเกินนี้ ให้ทิ้ง backlog แทนการไล่ตามไม่จบ
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final Runnable tick;
+    private final Runnable frame;
+    private final long frameNanos; // 0 = ขอเฟรมใหม่หลังทุก tick
+
+    private volatile boolean running;
+    private Thread thread;
+
+    private volatile long tickCount;
+    private volatile long droppedTicks;
+    private volatile int ticksPerSecond;
+
+    public GameLoop(Runnable tick, Runnable frame, int framesPerSecond) {
+        this.tick = tick;
+        this.frame = frame;
+        this.frameNanos = framesPerSecond > 0 ? 1_000_000_000L / framesPerSecond : 0;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        long nextFrame = previous;
+        long secondStart = previous;
+        int ticksThisSecond = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+
+            if (accumulator > MAX_CATCH_UP_TICKS * TICK_NANOS) {
+                droppedTicks += accumulator / TICK_NANOS - MAX_CATCH_UP_TICKS;
+                accumulator = MAX_CATCH_UP_TICKS * TICK_NANOS;
+            }
+
+            boolean ticked = false;
+            while (accumulator >= TICK_NANOS) {
+                ticked = true;
+                tick.run();
+                tickCount++;
+                ticksThisSecond++;
+                accumulator -= TICK_NANOS;
+            }
+
+            if (now - secondStart >= 1_000_000_000L) {
+                ticksPerSecond = ticksThisSecond;
+                ticksThisSecond = 0;
+                secondStart = now;
+            }
+
+            long sleep = TICK_NANOS - accumulator;
+            if (frameNanos == 0) {
+                if (ticked) frame.run();
+            } else {
+                if (now >= nextFrame) {
+                    frame.run();
+                    nextFrame = now + frameNanos;
+                }
+                sleep = Math.min(sleep, Math.max(nextFrame - System.nanoTime(), 0));
+            }
+            if (sleep > 0) LockSupport.parkNanos(sleep);
+        }
+    }
+
+    /** How far (0..1) the clock has moved past a tick published at publishedNanos. */
+    public static double alpha(long publishedNanos) {
+        double a = (System.nanoTime() - publishedNanos) / (double) TICK_NANOS;
+        return a < 0 ? 0 : Math.min(a, 1);
+    }
+
+    public long getTickCount() { return tickCount; }
+    public long getDroppedTicks() { return droppedTicks; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+}
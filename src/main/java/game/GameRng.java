@@ -0,0 +1,49 @@
+package game;
+
+/**
+ * SplitMix64 generator whose whole state is one long, so it can be reseeded, hashed and
+ * compared cheaply. Each sim subsystem owns its own instance; a run started from the same seed
+ * draws exactly the same numbers in every subsystem regardless of what the others do.
+ */
+public final class GameRng {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public GameRng(long seed) {
+        this.state = seed;
+    }
+
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    public long state() {
+        return state;
+    }
+
+    public long nextLong() {
+        long z = (state += GOLDEN);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Uniform in [0, bound); bound must be positive. */
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /** Seed for an independent stream: same (seed, stream) always gives the same result. */
+    public static long derive(long seed, int stream) {
+        return new GameRng(seed ^ (stream * GOLDEN)).nextLong();
+    }
+}
@@ -0,0 +1,780 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Simulation core: every rule and all mutable game state, with no AWT or Swing dependency.
+ * Stepped one fixed tick at a time with a PlayerInput, by the GameLoop thread for the windowed game
+ * or as fast as the CPU allows for headless batch runs and validation.
+ */
+public class GameWorld {
+    public static final int WIDTH = 1600;
+    public static final int HEIGHT = 900;
+    private static final int BOSS_SPAWN_SCORE = 3000;
+    private static final int BOSS_POTION_DROP_TICKS = 5 * GameLoop.TICKS_PER_SECOND;
+
+    // แต่ละระบบมี RNG ของตัวเอง แตกมาจาก seed ของรอบนั้น -> seed เดียวกัน + input เดียวกัน = ผลเดียวกัน
+    private long seed;
+    private final GameRng runs;
+    private final GameRng loot = new GameRng(0);
+    private final GameRng combat = new GameRng(0);
+    private long tick;
+
+    // ด่านแบ่งเป็น chunk ตามแกน x โหลด/ถอดตามตำแหน่งผู้เล่น
+    private final WorldStreamer streamer = new WorldStreamer();
+    private final Consumer<WorldStreamer.Chunk> onChunkLoad = this::loadChunk;
+    private final Consumer<WorldStreamer.Chunk> onChunkUnload = this::unloadChunk;
+
+    private Player player;
+    private ArrayList<Platform> platforms;
+    private final ArrayList<Enemy> enemies = new ArrayList<>();
+    // ศัตรูที่ตาย/หลุดไป เก็บไว้ใช้ซ้ำ -> เริ่มรอบใหม่/โหลด checkpoint/horde ไม่ต้อง new
+    private final ArrayList<Enemy> enemyPool = new ArrayList<>();
+    private final ParticleSystem particles = new ParticleSystem(
+            Integer.getInteger("game.particles", ParticleSystem.DEFAULT_CAPACITY), ParticleSystem.OverflowPolicy.OVERWRITE);
+    private Boss boss;
+    private Boss bossInstance; // มี boss ได้ตัวเดียว ใช้ object เดิมทุกรอบ
+    private int score;
+    private boolean gameOver;
+    private boolean gameWon;
+    private boolean bossSpawned;
+    private int cameraX, prevCameraX;
+    private int enemyKillCount = 0;
+    private long lastPotionDropTick = 0;
+    // boss trigger จากไฟล์ด่าน: ใช้ได้เฉพาะตอน chunk ของมันโหลดอยู่ (-1 = ไม่มี)
+    private int bossTriggerChunk = -1;
+    private int bossTriggerX, bossTriggerY, bossTriggerScore;
+
+    // broad phase สำหรับ combat / AI / pickup: Enemy, Boss, Potion และ Player
+    private final SpatialHash<Object> index = new SpatialHash<>(7);
+    private final ArrayList<Enemy> activeEnemies = new ArrayList<>();
+    private final ArrayList<Object> swingTargets = new ArrayList<>();
+    private final EnemyStepper enemyStepper = new EnemyStepper();
+    // โหมด horde (-Dgame.horde=true): ศัตรูเป็นพันตาม flow field, ไม่มี boss
+    private final HordeDirector horde = HordeDirector.enabled() ? new HordeDirector() : null;
+    private double[] swingDistances = new double[16];
+    private final ArrayList<Object> attackers = new ArrayList<>();
+    private final PickupManager pickups = new PickupManager(index);
+
+    // เวลาแต่ละ phase ของ tick -> PerfOverlay / Metrics
+    private static final Metrics.Timer T_TICK = Metrics.timer("sim.tick");
+    private static final Metrics.Timer T_PLAYER = Metrics.timer("sim.player");
+    private static final Metrics.Timer T_ENEMIES = Metrics.timer("sim.enemies");
+    private static final Metrics.Timer T_BOSS = Metrics.timer("sim.boss");
+    private static final Metrics.Timer T_HORDE = Metrics.timer("sim.horde");
+    private static final Metrics.Timer T_POTIONS = Metrics.timer("sim.potions");
+    private static final Metrics.Timer T_PARTICLES = Metrics.timer("sim.particles");
+    private static final Metrics.Gauge G_ENEMIES = Metrics.gauge("world.enemies");
+    private static final Metrics.Gauge G_ACTIVE = Metrics.gauge("world.enemies.active");
+    private static final Metrics.Gauge G_POTIONS = Metrics.gauge("world.potions");
+    private static final Metrics.Gauge G_PARTICLES = Metrics.gauge("world.particles");
+
+    // JFR events (ปิดไว้เป็นค่าเริ่มต้น) ใช้ object ซ้ำ ไม่ allocate ต่อ tick
+    private final GameEvents.TickEvent tickEvent = new GameEvents.TickEvent();
+    private final GameEvents.SpawnEvent spawnEvent = new GameEvents.SpawnEvent();
+    private final GameEvents.HitEvent hitEvent = new GameEvents.HitEvent();
+    private final GameEvents.KillEvent killEvent = new GameEvents.KillEvent();
+
+    public GameWorld() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    public GameWorld(long seed) {
+        this.seed = seed;
+        this.runs = new GameRng(seed);
+        reset();
+    }
+
+    // ============================ Stepping ============================
+    /** Advances the world by one fixed tick. */
+    public void step(PlayerInput in) {
+        tickEvent.begin();
+        if (gameOver || gameWon) {
+            if (in.restart) reset();
+        } else {
+            player.moveLeft = in.left;
+            player.moveRight = in.right;
+            if (in.jump) player.jump();
+            if (in.attack) player.startAttack();
+            if (in.dash) player.dash();
+            update();
+        }
+        tickEvent.end();
+        if (tickEvent.shouldCommit()) {
+            tickEvent.tick = tick;
+            tickEvent.enemies = enemies.size();
+            tickEvent.activeEnemies = boss != null ? 1 : activeEnemies.size();
+            tickEvent.particles = particles.size();
+            tickEvent.potions = pickups.live().size();
+            tickEvent.score = score;
+            tickEvent.commit();
+        }
+        tick++;
+    }
+
+    public long getTick() { return tick; }
+    public long getSeed() { return seed; }
+    public Player getPlayer() { return player; }
+    public List<Platform> getPlatforms() { return platforms; }
+    public List<Enemy> getEnemies() { return enemies; }
+    public List<Potion> getPotions() { return pickups.live(); }
+    public Boss getBoss() { return boss; }
+    public ParticleSystem getParticles() { return particles; }
+    public int getScore() { return score; }
+    public boolean isGameOver() { return gameOver; }
+    public boolean isGameWon() { return gameWon; }
+    public int getCameraX() { return cameraX; }
+    public int getPrevCameraX() { return prevCameraX; }
+    public WorldStreamer getStreamer() { return streamer; }
+
+    // ============================ State hash ============================
+    /**
+     * Hash of everything the rules depend on (entities, score, flags, RNG states). Two runs that
+     * agree on this every tick are playing the same game; used to check replays.
+     */
+    public long stateHash() {
+        long h = mix(seed, tick);
+        h = mix(h, score);
+        h = mix(h, (gameOver ? 1 : 0) | (gameWon ? 2 : 0) | (bossSpawned ? 4 : 0));
+        h = mix(h, cameraX);
+        h = mix(h, loot.state());
+        h = mix(h, combat.state());
+        if (horde != null) h = mix(h, horde.rngState());
+
+        Player p = player;
+        h = mix(h, Double.doubleToLongBits(p.x));
+        h = mix(h, Double.doubleToLongBits(p.y));
+        h = mix(h, Double.doubleToLongBits(p.dx));
+        h = mix(h, Double.doubleToLongBits(p.dy));
+        h = mix(h, p.health);
+        h = mix(h, ((long) p.state.ordinal() << 32) | p.currentFrame);
+        h = mix(h, ((long) p.buffTimer << 32) | p.attackCooldown);
+
+        h = mix(h, enemies.size());
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            h = mix(h, Double.doubleToLongBits(e.x));
+            h = mix(h, Double.doubleToLongBits(e.y));
+            h = mix(h, ((long) e.health << 32) | ((long) e.state.ordinal() << 16) | e.currentFrame);
+        }
+        if (boss != null) {
+            h = mix(h, Double.doubleToLongBits(boss.x));
+            h = mix(h, Double.doubleToLongBits(boss.y));
+            h = mix(h, ((long) boss.health << 32) | ((long) boss.state.ordinal() << 16) | boss.currentFrame);
+        }
+        List<Potion> potions = pickups.live();
+        h = mix(h, potions.size());
+        for (int i = 0; i < potions.size(); i++) {
+            Potion q = potions.get(i);
+            h = mix(h, Double.doubleToLongBits(q.x));
+            h = mix(h, Double.doubleToLongBits(q.y));
+            h = mix(h, (q.collected ? 8 : 0) | q.type.ordinal());
+        }
+        return mix(h, platforms.size());
+    }
+
+    private static long mix(long h, long v) {
+        return Long.rotateLeft((h ^ v) * 0x9E3779B97F4A7C15L, 29);
+    }
+
+    // ============================ Checkpoint ============================
+    /** Writes the whole simulation state to b (see WorldCheckpoint). */
+    void save(ByteBuffer b) {
+        b.put((byte) (horde != null ? 1 : 0)).putInt(streamer.levelRight());
+        b.putLong(seed).putLong(runs.state()).putLong(tick);
+        b.putLong(loot.state()).putLong(combat.state());
+        b.putInt(score).putInt(cameraX).putInt(prevCameraX).putInt(enemyKillCount).putLong(lastPotionDropTick);
+        b.putInt(bossTriggerChunk).putInt(bossTriggerX).putInt(bossTriggerY).putInt(bossTriggerScore);
+        b.put((byte) ((gameOver ? 1 : 0) | (gameWon ? 2 : 0) | (bossSpawned ? 4 : 0)));
+
+        int[] chunks = streamer.residentOrder();
+        b.putLong(streamer.seed()).putInt(chunks.length);
+        for (int k : chunks) b.putInt(k);
+        streamer.saveClaims(b);
+
+        player.save(b);
+        b.putInt(enemies.size());
+        for (int i = 0; i < enemies.size(); i++) enemies.get(i).save(b);
+        b.put((byte) (boss != null ? 1 : 0));
+        if (boss != null) boss.save(b);
+        pickups.save(b);
+        particles.save(b);
+        if (horde != null) horde.save(b);
+
+        // id ใน index: player = 0, ศัตรู = 1..n, boss = n + 1, ขวด = n + 2 ...
+        IdentityHashMap<Object, Integer> ids = new IdentityHashMap<>();
+        ids.put(player, 0);
+        for (int i = 0; i < enemies.size(); i++) ids.put(enemies.get(i), i + 1);
+        if (boss != null) ids.put(boss, enemies.size() + 1);
+        List<Potion> potions = pickups.live();
+        for (int i = 0; i < potions.size(); i++) ids.put(potions.get(i), enemies.size() + 2 + i);
+        index.save(b, ids::get);
+    }
+
+    private Object indexed(int id) {
+        int n = enemies.size();
+        if (id == 0) return player;
+        if (id <= n) return enemies.get(id - 1);
+        if (id == n + 1) return boss;
+        return pickups.live().get(id - n - 2);
+    }
+
+    /**
+     * Replaces the simulation state with what save() wrote, in place: the player, pooled enemies,
+     * the boss and potions are reused, resident chunks of the same seed are kept and the spatial
+     * index is rebuilt cell for cell. Fails without touching the world if b was saved in another game mode;
+     * other decoding errors can leave it half loaded (WorldCheckpoint.restore() rolls those back).
+     */
+    void load(ByteBuffer b) {
+        boolean savedHorde = b.get() != 0;
+        if (savedHorde != (horde != null)) {
+            throw new IllegalArgumentException("checkpoint was saved " + (savedHorde ? "in" : "outside") + " horde mode");
+        }
+        int savedRight = b.getInt();
+        if (savedRight != streamer.levelRight()) {
+            throw new IllegalArgumentException("checkpoint is for a level " + savedRight + " px wide, this one is "
+                    + streamer.levelRight());
+        }
+        seed = b.getLong();
+        runs.setSeed(b.getLong());
+        tick = b.getLong();
+        loot.setSeed(b.getLong());
+        combat.setSeed(b.getLong());
+        score = b.getInt();
+        cameraX = b.getInt();
+        prevCameraX = b.getInt();
+        enemyKillCount = b.getInt();
+        lastPotionDropTick = b.getLong();
+        bossTriggerChunk = b.getInt();
+        bossTriggerX = b.getInt();
+        bossTriggerY = b.getInt();
+        bossTriggerScore = b.getInt();
+        int flags = b.get();
+        gameOver = (flags & 1) != 0;
+        gameWon = (flags & 2) != 0;
+        bossSpawned = (flags & 4) != 0;
+
+        long streamSeed = b.getLong();
+        int[] chunks = new int[WorldCheckpoint.count(b, 4)];
+        for (int i = 0; i < chunks.length; i++) chunks[i] = b.getInt();
+        ArrayList<Platform> next = new ArrayList<>();
+        for (WorldStreamer.Chunk c : streamer.restore(streamSeed, chunks)) next.addAll(c.platforms);
+        platforms = next;
+        streamer.loadClaims(b);
+
+        activeEnemies.clear();
+        player.load(b);
+
+        int n = WorldCheckpoint.count(b, Enemy.SAVE_BYTES);
+        while (enemies.size() > n) enemyPool.add(enemies.remove(enemies.size() - 1));
+        for (int i = 0; i < n; i++) {
+            if (i == enemies.size()) enemies.add(obtainEnemy(0, 0));
+            Enemy e = enemies.get(i);
+            e.load(b);
+            if (e.isActive) activeEnemies.add(e);
+        }
+
+        if (b.get() != 0) {
+            if (bossInstance == null) bossInstance = new Boss(0, 0);
+            boss = bossInstance;
+            boss.load(b);
+        } else {
+            boss = null;
+        }
+        pickups.load(b, platforms);
+        particles.load(b);
+        if (horde != null) horde.load(b, platforms);
+        index.load(b, this::indexed);
+    }
+
+    // ============================ Visibility ============================
+    /**
+     * Adds the active enemies and uncollected potions whose indexed boxes overlap the rect,
+     * found through the spatial index instead of scanning the world. Enemies come out sorted by x
+     * so overlapping sprites keep a stable draw order from frame to frame.
+     */
+    public void queryVisible(int x, int y, int w, int h, List<Enemy> enemiesOut, List<Potion> potionsOut) {
+        int start = enemiesOut.size();
+        index.queryRect(x, y, w, h, Enemy.class, enemiesOut);
+        // ตัวที่ไม่ active ไม่ถูกวาดอยู่แล้ว -> ตัดทิ้ง แล้ว insertion sort ตาม x (ไม่ allocate)
+        int n = start;
+        for (int i = start; i < enemiesOut.size(); i++) {
+            Enemy e = enemiesOut.get(i);
+            if (!e.isActive) continue;
+            int j = n++;
+            while (j > start && enemiesOut.get(j - 1).x > e.x) {
+                enemiesOut.set(j, enemiesOut.get(j - 1));
+                j--;
+            }
+            enemiesOut.set(j, e);
+        }
+        while (enemiesOut.size() > n) enemiesOut.remove(enemiesOut.size() - 1);
+
+        // ขวดที่เก็บแล้วถูกถอดออกจาก index ตอนเก็บ
+        index.queryRect(x, y, w, h, Potion.class, potionsOut);
+    }
+
+    /**
+     * Throws away the current run and starts a new one from the same seed sequence. Entities are
+     * reset in place and enemies go back to the pool, so a restart allocates almost nothing.
+     */
+    public void reset() {
+        platforms = new ArrayList<>();
+        recycleEnemies();
+        particles.clear();
+        pickups.clear();
+        boss = null;
+        score = 0;
+        gameOver = false;
+        gameWon = false;
+        bossSpawned = false;
+        cameraX = prevCameraX = 0;
+        enemyKillCount = 0;
+        lastPotionDropTick = tick;
+        bossTriggerChunk = -1;
+        index.clear();
+        activeEnemies.clear();
+
+        long run = runs.nextLong();
+        streamer.reset(GameRng.derive(run, 1));
+        loot.setSeed(GameRng.derive(run, 2));
+        combat.setSeed(GameRng.derive(run, 3));
+        particles.reseed(GameRng.derive(run, 4));
+        if (horde != null) horde.reset(GameRng.derive(run, 5), tick);
+
+        LevelFile level = streamer.level();
+        int px = level != null ? level.playerX() : 100, py = level != null ? level.playerY() : 100;
+        if (player == null) {
+            player = new Player(px, py);
+            player.rng = combat;
+        } else {
+            player.reset(px, py);
+        }
+        streamer.update((int) player.x, onChunkLoad, onChunkUnload);
+        reindex(player);
+    }
+
+    // ============================ Streaming ============================
+    // platforms ถูกอ่านจาก render thread ผ่าน snapshot -> เปลี่ยนแบบ copy-on-write (เกิดแค่ตอนข้าม chunk)
+    private void loadChunk(WorldStreamer.Chunk c) {
+        ArrayList<Platform> next = new ArrayList<>(platforms.size() + c.platforms.size());
+        next.addAll(platforms);
+        next.addAll(c.platforms);
+        platforms = next;
+
+        // record ที่ถูกฆ่า/เก็บไปแล้ว (หรือยังมีตัวอยู่) ไม่เกิดซ้ำตอน chunk โหลดกลับมา
+        int[] sp = c.spawns;
+        for (int i = 0, r = 0; i < sp.length; i += WorldStreamer.SPAWN_STRIDE, r++) {
+            int x = sp[i + 1], y = sp[i + 2], arg = sp[i + 3];
+            switch (sp[i]) {
+                case LevelFile.ENEMY -> {
+                    if (streamer.isClaimed(c.index, r)) continue;
+                    Enemy e = addEnemy(x, y);
+                    e.spawnChunk = c.index;
+                    e.spawnRecord = r;
+                    streamer.claim(c.index, r);
+                }
+                case LevelFile.POTION -> {
+                    if (streamer.isClaimed(c.index, r)) continue;
+                    Potion p = pickups.spawn(x, y, Potion.TYPES[arg], tick, false);
+                    p.spawnChunk = c.index;
+                    p.spawnRecord = r;
+                    streamer.claim(c.index, r);
+                }
+                case LevelFile.BOSS -> {
+                    bossTriggerChunk = c.index;
+                    bossTriggerX = x;
+                    bossTriggerY = y;
+                    bossTriggerScore = arg;
+                }
+                default -> { }
+            }
+        }
+    }
+
+    // chunk ที่หลุด window อยู่ห่างผู้เล่นเกินระยะ activation -> ถอดทุกอย่างในช่วง x นั้นทิ้ง
+    private void unloadChunk(WorldStreamer.Chunk c) {
+        ArrayList<Platform> next = new ArrayList<>(platforms);
+        next.removeAll(c.platforms);
+        platforms = next;
+        if (bossTriggerChunk == c.index) bossTriggerChunk = -1;
+
+        int left = c.left(), right = c.right();
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            Enemy e = enemies.get(i);
+            if (e.x >= left && e.x < right) {
+                enemies.remove(i);
+                index.remove(e);
+                if (e.spawnChunk >= 0) streamer.release(e.spawnChunk, e.spawnRecord);
+                enemyPool.add(e);
+            }
+        }
+        List<Potion> potions = pickups.live();
+        for (int i = 0; i < potions.size(); i++) {
+            Potion p = potions.get(i);
+            if (p.spawnChunk >= 0 && p.x >= left && p.x < right) streamer.release(p.spawnChunk, p.spawnRecord);
+        }
+        pickups.removeRange(left, right);
+    }
+
+    // ด่านที่กำหนด boss trigger เอง -> boss เกิดเฉพาะที่ trigger
+    private boolean hasBossTriggers() {
+        LevelFile level = streamer.level();
+        return level != null && level.bossTriggers() > 0;
+    }
+
+    /** Adds one more enemy at (x, y); lets benchmarks and tools build crowded worlds. */
+    Enemy addEnemy(int x, int y) {
+        Enemy e = obtainEnemy(x, y);
+        enemies.add(e);
+        reindex(e);
+        return e;
+    }
+
+    private Enemy obtainEnemy(int x, int y) {
+        if (enemyPool.isEmpty()) return new Enemy(x, y);
+        Enemy e = enemyPool.remove(enemyPool.size() - 1);
+        e.reset(x, y);
+        return e;
+    }
+
+    // ทุกตัวกลับเข้า pool; คนเรียกจัดการ index เอง
+    private void recycleEnemies() {
+        for (int i = 0; i < enemies.size(); i++) enemyPool.add(enemies.get(i));
+        enemies.clear();
+    }
+
+    private void spawnBoss(int x, int y) {
+        if (!bossSpawned) {
+            bossSpawned = true;
+            // ถอดจาก index ตามลำดับใน list (ลำดับใน cell ต้องเหมือนกันทุกครั้งที่เล่น replay)
+            for (int i = 0; i < enemies.size(); i++) index.remove(enemies.get(i));
+            recycleEnemies();
+            activeEnemies.clear();
+            if (bossInstance == null) bossInstance = new Boss(x, y);
+            else bossInstance.reset(x, y);
+            boss = bossInstance;
+            reindex(boss);
+            lastPotionDropTick = tick;
+            spawned("boss", boss.x, boss.y);
+            System.out.println("⚠️ BOSS SPAWNED!");
+        }
+    }
+
+    private void update() {
+        long t0 = System.nanoTime();
+        prevCameraX = cameraX;
+        streamer.update((int) player.x, onChunkLoad, onChunkUnload);
+        player.update(platforms);
+        player.x = Math.max(0, Math.min(player.x, streamer.levelRight() - player.width));
+        reindex(player);
+        long t1 = System.nanoTime();
+        T_PLAYER.record(t1 - t0);
+
+        if (!bossSpawned && horde == null) {
+            if (bossTriggerChunk >= 0) {
+                if (score >= bossTriggerScore) spawnBoss(bossTriggerX, bossTriggerY);
+            } else if (!hasBossTriggers() && score >= BOSS_SPAWN_SCORE) {
+                spawnBoss(cameraX + WIDTH / 2 + 200, 50);
+            }
+        }
+
+        if (boss != null) {
+            boss.update(player, platforms);
+            reindex(boss);
+            handleBossCombat();
+            handleBossPotionDrops();
+        } else {
+            updateEnemies();
+        }
+        long t2 = System.nanoTime();
+        (bossSpawned ? T_BOSS : T_ENEMIES).record(t2 - t1);
+
+        updatePotions();
+        long t3 = System.nanoTime();
+        T_POTIONS.record(t3 - t2);
+
+        particles.update();
+        long t4 = System.nanoTime();
+        T_PARTICLES.record(t4 - t3);
+
+        cameraX = (int) (player.x - WIDTH / 2);
+        cameraX = Math.max(0, cameraX);
+
+        T_TICK.record(t4 - t0);
+        G_ENEMIES.set(enemies.size());
+        G_ACTIVE.set(boss != null ? 1 : activeEnemies.size());
+        G_POTIONS.set(pickups.live().size());
+        G_PARTICLES.set(particles.size());
+    }
+
+    private void handleBossCombat() {
+        resolvePlayerSwing();
+        if (boss != null) resolveAttacksOnPlayer();
+    }
+
+    private void updateEnemies() {
+        // AI ทำงานเฉพาะตัวที่อยู่ในแถบ activation รอบผู้เล่น (ถาม index แทนการวนทุกตัว)
+        for (int i = 0; i < activeEnemies.size(); i++) activeEnemies.get(i).isActive = false;
+        activeEnemies.clear();
+        int pCenter = (int) player.x + player.width / 2;
+        if (horde != null) directHorde(pCenter);
+        int band = Enemy.ACTIVATION_RANGE + 200;
+        index.queryRect(pCenter - band, -HEIGHT, band * 2, HEIGHT * 3, Enemy.class, activeEnemies);
+        // cooldown ของตัวที่เพิ่งกลับเข้าแถบต้องนับต่อเหมือนถูก step ทุก tick (กติกาเดิม)
+        for (int i = 0; i < activeEnemies.size(); i++) activeEnemies.get(i).catchUp(tick);
+
+        // phase 1: แต่ละตัวคำนวณสถานะใหม่ (ขนานได้ถ้าเยอะ), phase 2: index + combat แบบ serial
+        enemyStepper.step(activeEnemies, player, platforms, horde != null ? horde.field() : null, streamer.levelRight());
+        for (int i = 0; i < activeEnemies.size(); i++) reindex(activeEnemies.get(i));
+
+        resolvePlayerSwing();
+        resolveAttacksOnPlayer();
+    }
+
+    // flow field ตามผู้เล่น, ทิ้งตัวที่หลุดไปไกล, แล้วเติมประชากรตามเป้า
+    private void directHorde(int pCenter) {
+        long t0 = System.nanoTime();
+        horde.field().update(platforms, pCenter, player.y + player.height, tick);
+
+        int kept = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            if (Math.abs((int) e.x + e.width / 2 - pCenter) > HordeDirector.DESPAWN_RANGE) {
+                index.remove(e);
+                enemyPool.add(e);
+            } else {
+                enemies.set(kept++, e);
+            }
+        }
+        for (int i = enemies.size() - 1; i >= kept; i--) enemies.remove(i);
+
+        int levelRight = streamer.levelRight();
+        for (int n = horde.spawnCount(enemies.size(), tick); n > 0; n--) {
+            Enemy e = obtainEnemy(0, 50);
+            e.x = e.prevX = horde.spawnX(pCenter, levelRight, e.width);
+            enemies.add(e);
+            reindex(e);
+        }
+        T_HORDE.record(System.nanoTime() - t0);
+    }
+
+    // ============================ Combat (through the spatial index) ============================
+    private void resolvePlayerSwing() {
+        if (!player.isAttacking || !player.canDealDamage || player.hasDealtDamage) return;
+
+        Aabb atk = player.getAttackBox();
+        swingTargets.clear();
+        index.queryRect(atk.x, atk.y, atk.width, atk.height, Enemy.class, swingTargets);
+        index.queryRect(atk.x, atk.y, atk.width, atk.height, Boss.class, swingTargets);
+
+        // narrow phase: เก็บเฉพาะตัวที่ hitbox โดนจริง พร้อมระยะจากผู้เล่น (ไม่ใช้ lambda/Comparator -> ไม่ allocate)
+        // เรียงไว้แค่ k ตัวที่ใกล้สุด -> ฝูงใหญ่ในระยะฟันไม่กลายเป็น O(n^2)
+        double pCenter = player.x + player.width / 2.0;
+        int k = player.cleaveTargets;
+        if (swingDistances.length < k) swingDistances = java.util.Arrays.copyOf(swingDistances, k);
+        int n = 0;
+        for (int i = 0; i < swingTargets.size(); i++) {
+            Object t = swingTargets.get(i);
+            boolean touched;
+            double center;
+            if (t instanceof Enemy e) {
+                touched = atk.intersects(e.getBounds());
+                center = e.x + e.width / 2.0;
+            } else {
+                Boss b = (Boss) t;
+                touched = atk.intersects(b.getBounds());
+                center = b.x + b.width / 2.0;
+            }
+            if (!touched) continue;
+
+            // insertion sort ตามระยะ ตัวใกล้สุดอยู่หน้า (เต็ม k แล้ว -> ตัวไกลสุดหลุดไป)
+            double d = Math.abs(center - pCenter);
+            if (n == k && swingDistances[n - 1] <= d) continue;
+            int j = n < k ? n : n - 1;
+            while (j > 0 && swingDistances[j - 1] > d) {
+                swingDistances[j] = swingDistances[j - 1];
+                swingTargets.set(j, swingTargets.get(j - 1));
+                j--;
+            }
+            swingDistances[j] = d;
+            swingTargets.set(j, t);
+            if (n < k) n++;
+        }
+        if (n == 0) return;
+
+        int actualDamage = player.powerBuff ? player.damage * 2 : player.damage;
+        for (int i = 0; i < n; i++) {
+            Object t = swingTargets.get(i);
+            if (t instanceof Enemy e) hitEnemy(e, actualDamage);
+            else hitBoss((Boss) t, actualDamage);
+        }
+
+        player.hasDealtDamage = true;
+        player.canDealDamage = false;
+    }
+
+    private void hitEnemy(Enemy enemy, int damage) {
+        enemy.health -= damage;
+        enemy.hit = true;
+        enemy.knockbackX = player.facingRight ? 16 : -16;
+        createHitParticles(enemy.x, enemy.y);
+        hit("enemy", damage, enemy.health);
+
+        if (enemy.health <= 0) {
+            // สลับตัวท้ายมาแทนที่ (ไม่ต้องเลื่อนทั้ง list แบบ remove(Object))
+            int i = enemies.indexOf(enemy);
+            int last = enemies.size() - 1;
+            enemies.set(i, enemies.get(last));
+            enemies.remove(last);
+            index.remove(enemy);
+            score += 100;
+            enemyKillCount++;
+            killed("enemy");
+
+            if (enemyKillCount % 5 == 0) dropPotion(enemy.x, enemy.y);
+            enemyPool.add(enemy);
+
+            if (horde == null && score < BOSS_SPAWN_SCORE) {
+                Enemy spawned = obtainEnemy(cameraX + WIDTH + 200, 50);
+                enemies.add(spawned);
+                reindex(spawned);
+                spawned("enemy", spawned.x, spawned.y);
+            }
+        }
+    }
+
+    private void hitBoss(Boss b, int damage) {
+        b.health -= damage;
+        b.hit = true;
+        b.knockbackX = player.facingRight ? 20 : -20;
+        createHitParticles(b.x + b.width / 2, b.y + b.height / 2);
+        hit("boss", damage, b.health);
+
+        if (b.health <= 0) {
+            index.remove(b);
+            boss = null;
+            score += 1000;
+            gameWon = true;
+            killed("boss");
+        }
+    }
+
+    private void resolveAttacksOnPlayer() {
+        if (player.isHit) return;
+
+        Aabb pb = player.getBoundsWorld();
+        attackers.clear();
+        index.queryRect(pb.x, pb.y, pb.width, pb.height, Enemy.class, attackers);
+        index.queryRect(pb.x, pb.y, pb.width, pb.height, Boss.class, attackers);
+        for (int i = 0; i < attackers.size(); i++) {
+            Object a = attackers.get(i);
+            if (a instanceof Enemy e) {
+                if (e.isAttacking && e.getAttackBox().intersects(pb)) {
+                    hurtPlayer(Enemy.TYPE.damage, e.x < player.x ? 20 : -20);
+                    return;
+                }
+            } else {
+                Boss b = (Boss) a;
+                if (b.isAttacking && b.getAttackBox().intersects(pb)) {
+                    hurtPlayer(Boss.TYPE.damage, b.x < player.x ? 25 : -25);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void hurtPlayer(int damage, double knockback) {
+        player.health -= damage;
+        player.isHit = true;
+        player.hitTimer = 30;
+        player.knockbackX = knockback;
+        hit("player", damage, player.health);
+        if (player.health <= 0) gameOver = true;
+    }
+
+    private void spawned(String kind, double x, double y) {
+        if (!spawnEvent.isEnabled()) return;
+        // object ถูกใช้ซ้ำ -> begin/end ใหม่ทุกครั้งให้ timestamp ถูก
+        spawnEvent.begin();
+        spawnEvent.kind = kind;
+        spawnEvent.x = (int) x;
+        spawnEvent.y = (int) y;
+        spawnEvent.end();
+        spawnEvent.commit();
+    }
+
+    private void hit(String target, int damage, int healthLeft) {
+        if (!hitEvent.isEnabled()) return;
+        hitEvent.begin();
+        hitEvent.target = target;
+        hitEvent.damage = damage;
+        hitEvent.healthLeft = healthLeft;
+        hitEvent.end();
+        hitEvent.commit();
+    }
+
+    private void killed(String target) {
+        if (!killEvent.isEnabled()) return;
+        killEvent.begin();
+        killEvent.target = target;
+        killEvent.score = score;
+        killEvent.end();
+        killEvent.commit();
+    }
+
+    // index เก็บกล่องที่ครอบทั้ง hitbox และ attack box -> query เดียวได้ candidate ของทั้งสองแบบ
+    private void reindex(Object item, Aabb a, Aabb b) {
+        int x0 = Math.min(a.x, b.x), y0 = Math.min(a.y, b.y);
+        int x1 = Math.max(a.x + a.width, b.x + b.width), y1 = Math.max(a.y + a.height, b.y + b.height);
+        index.update(item, x0, y0, x1 - x0, y1 - y0);
+    }
+
+    private void reindex(Enemy e) { reindex(e, e.getBounds(), e.getAttackBox()); }
+    private void reindex(Boss b) { reindex(b, b.getBounds(), b.getAttackBox()); }
+    private void reindex(Player p) { reindex(p, p.getBounds(), p.getAttackBox()); }
+
+    private void handleBossPotionDrops() {
+        if (tick - lastPotionDropTick >= BOSS_POTION_DROP_TICKS) {
+            double x = cameraX + loot.nextInt(WIDTH - 100) + 50;
+            pickups.spawn(x, 0, Potion.TYPES[loot.nextInt(3)], tick, true);
+            lastPotionDropTick = tick;
+        }
+    }
+
+    private void updatePotions() {
+        pickups.update(platforms, tick);
+
+        // เก็บขวดเฉพาะที่ index บอกว่าแตะตัวผู้เล่น
+        List<Potion> touched = pickups.touching(player.getBoundsWorld());
+        for (int i = 0; i < touched.size(); i++) {
+            Potion p = touched.get(i);
+            Potion.Type type = p.type;
+            pickups.collect(p);
+            switch (type) {
+                case HEALTH -> player.health = Math.min(100, player.health + 50);
+                case SPEED -> {
+                    player.speedBuff = true;
+                    player.buffTimer = 8 * 60;
+                }
+                case POWER -> {
+                    player.powerBuff = true;
+                    player.buffTimer = 8 * 60;
+                }
+            }
+        }
+    }
+
+    private void dropPotion(double x, double y) {
+        pickups.spawn(x, y, Potion.TYPES[loot.nextInt(3)], tick, true);
+    }
+
+    private void createHitParticles(double x, double y) {
+        particles.burst(x, y, 12);
+    }
+}
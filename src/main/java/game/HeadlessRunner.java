@@ -0,0 +1,133 @@
+package game;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the GameWorld with no window, as fast as the CPU allows, driven by a simple bot.
+ * Useful for batch validation and for checking that a change keeps the simulation intact.
+ *
+ *   java game.HeadlessRunner --ticks=36000 --seed=42 [--endless] [--horde]
+ *
+ * With --record=file the bot's session is written as a ReplayLog; --replay=file plays a log
+ * (from the game or the bot) instead of the bot and checks its state hashes, exiting with 1
+ * on divergence. --hashes=file writes the state hash of every tick for diffing two runs.
+ * --load=file starts from a WorldCheckpoint instead of a new world (and runs --ticks more),
+ * --save=file writes one at the end; the bot is driven by the world tick, so a run continued
+ * from a checkpoint plays exactly like the run it was saved from.
+ */
+public class HeadlessRunner {
+
+    public static void main(String[] args) throws IOException {
+        long ticks = 60L * 60 * 10;
+        long seed = 42;
+        String record = null, replay = null, hashes = null, load = null, save = null;
+        for (String arg : args) {
+            if (arg.startsWith("--ticks=")) ticks = Long.parseLong(arg.substring(8));
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+            else if (arg.startsWith("--cleave=")) System.setProperty("game.cleave", arg.substring(9));
+            else if (arg.equals("--endless")) System.setProperty("game.world.chunks", "0");
+            else if (arg.equals("--horde")) System.setProperty("game.horde", "true");
+            else if (arg.startsWith("--record=")) record = arg.substring(9);
+            else if (arg.startsWith("--replay=")) replay = arg.substring(9);
+            else if (arg.startsWith("--hashes=")) hashes = arg.substring(9);
+            else if (arg.startsWith("--load=")) load = arg.substring(7);
+            else if (arg.startsWith("--save=")) save = arg.substring(7);
+            else System.err.println("Unknown option: " + arg);
+        }
+
+        ReplayLog.Playback playback = null;
+        if (replay != null) {
+            playback = ReplayLog.read(Path.of(replay));
+            playback.applyProperties();
+            seed = playback.seed();
+            ticks = playback.ticks();
+        }
+
+        GameWorld world = new GameWorld(seed);
+        WorldCheckpoint checkpoint = new WorldCheckpoint();
+        if (load != null) {
+            if (record != null || replay != null) {
+                System.err.println("--load cannot be combined with --record or --replay");
+                System.exit(2);
+            }
+            checkpoint.read(Path.of(load));
+            long t0 = System.nanoTime();
+            try {
+                checkpoint.restore(world);
+            } catch (IllegalArgumentException e) {
+                System.err.println("❌ Cannot load " + load + ": " + e.getMessage());
+                System.exit(2);
+            }
+            seed = world.getSeed();
+            System.out.printf("Loaded %s: tick %d, %d bytes, restored in %.3f ms%n",
+                    load, checkpoint.tick(), checkpoint.size(), (System.nanoTime() - t0) / 1e6);
+        }
+        PlayerInput input = new PlayerInput();
+        ReplayLog.Recorder recorder = record != null ? ReplayLog.record(Path.of(record), world) : null;
+        PrintWriter hashOut = hashes != null ? new PrintWriter(Files.newBufferedWriter(Path.of(hashes))) : null;
+        long diverged = -1;
+        int runs = 1;
+
+        long start = System.nanoTime();
+        for (long t = 0; t < ticks; t++) {
+            if (playback != null) playback.input((int) t, input);
+            else bot(world, input, world.getTick());
+            boolean ended = world.isGameOver() || world.isGameWon();
+            if (ended) {
+                System.out.println((world.isGameWon() ? "🏆 Won" : "💀 Died") + " at tick " + world.getTick()
+                        + ", score " + world.getScore());
+                runs++;
+            }
+            world.step(input);
+            if (recorder != null) recorder.record(input, world);
+            if (hashOut != null) hashOut.println(world.getTick() + " " + Long.toHexString(world.stateHash()));
+            if (playback != null && diverged < 0 && !playback.verify(world)) diverged = world.getTick();
+            input.clearPresses();
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        if (recorder != null) recorder.close();
+        if (hashOut != null) hashOut.close();
+        if (save != null) {
+            long t0 = System.nanoTime();
+            checkpoint.capture(world);
+            long t1 = System.nanoTime();
+            checkpoint.write(Path.of(save));
+            System.out.printf("Saved %s: tick %d, %d bytes, captured in %.3f ms%n",
+                    save, checkpoint.tick(), checkpoint.size(), (t1 - t0) / 1e6);
+        }
+
+        System.out.printf("Ticks: %d in %.2f s (%.0f ticks/s, %.0fx real time)%n",
+                ticks, secs, ticks / secs, ticks / secs / GameLoop.TICKS_PER_SECOND);
+        System.out.println("Runs: " + runs + ", final score: " + world.getScore()
+                + ", player hp: " + world.getPlayer().health);
+        WorldStreamer streamer = world.getStreamer();
+        System.out.println("Chunks: " + streamer.generatedChunks() + " loaded, " + streamer.unloadedChunks()
+                + " unloaded, " + streamer.residentChunks() + " resident (~" + streamer.residentBytes() / 1024
+                + " KB), " + streamer.stalls() + " stalls, player x " + (int) world.getPlayer().x);
+        System.out.println("Seed: " + seed + ", state hash: " + Long.toHexString(world.stateHash()));
+
+        if (playback != null) {
+            if (diverged >= 0) {
+                System.out.println("❌ Replay diverged at tick " + diverged);
+                System.exit(1);
+            }
+            System.out.println("✅ Replay matched " + playback.hashCount() + " checkpoints");
+        }
+    }
+
+    // เดินขวา ฟันทุก 20 tick กระโดดทุก 90 tick และ restart ทันทีเมื่อจบเกม
+    private static void bot(GameWorld world, PlayerInput in, long t) {
+        if (world.isGameOver() || world.isGameWon()) {
+            in.restart = true;
+            return;
+        }
+        in.right = (t / 240) % 4 != 3;
+        in.left = !in.right;
+        in.attack = t % 20 == 0;
+        in.jump = t % 90 == 0;
+        in.dash = t % 300 == 0;
+    }
+}
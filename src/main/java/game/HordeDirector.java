@@ -0,0 +1,75 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Survival ("horde") mode: population control plus the shared FlowField every skeleton follows.
+ * The target population grows steadily from the start of a run up to a cap; missing enemies are
+ * spawned just off screen on either side of the player, a bounded number per tick, and enemies
+ * left too far behind are despawned so the budget goes to the ones that can still reach the
+ * player. There is no boss in this mode: the run lasts until the player dies.
+ *
+ * Enable with -Dgame.horde=true (--horde). Config: game.horde.max (default 5000),
+ * game.horde.start (20), game.horde.ramp (target growth per second, 40).
+ */
+final class HordeDirector {
+    static final int SPAWNS_PER_TICK = 40;
+    // ห่างผู้เล่นเกินนี้ -> ทิ้ง (เกินแถบ activation ไปแล้ว เดินกลับมาไม่ทัน)
+    static final int DESPAWN_RANGE = GameWorld.WIDTH;
+
+    private final int max = Integer.getInteger("game.horde.max", 5000);
+    private final int start = Integer.getInteger("game.horde.start", 20);
+    private final int ramp = Integer.getInteger("game.horde.ramp", 40);
+
+    private final FlowField field = new FlowField();
+    private final GameRng rng = new GameRng(0);
+    private long startTick;
+
+    static boolean enabled() {
+        return Boolean.getBoolean("game.horde");
+    }
+
+    void reset(long seed, long tick) {
+        rng.setSeed(seed);
+        startTick = tick;
+    }
+
+    FlowField field() {
+        return field;
+    }
+
+    long rngState() {
+        return rng.state();
+    }
+
+    void save(ByteBuffer b) {
+        b.putLong(rng.state()).putLong(startTick).putInt(field.goal()).putLong(field.solvedAt());
+    }
+
+    void load(ByteBuffer b, List<Platform> platforms) {
+        rng.setSeed(b.getLong());
+        startTick = b.getLong();
+        int goal = b.getInt();
+        field.restore(platforms, goal, b.getLong());
+    }
+
+    int target(long tick) {
+        long t = start + (tick - startTick) * ramp / GameLoop.TICKS_PER_SECOND;
+        return (int) Math.min(max, t);
+    }
+
+    /** How many enemies to add this tick given the current population. */
+    int spawnCount(int alive, long tick) {
+        return Math.max(0, Math.min(SPAWNS_PER_TICK, target(tick) - alive));
+    }
+
+    /** Spawn x just outside the view on a random side, kept inside the level. */
+    int spawnX(int playerCenter, int levelRight, int enemyWidth) {
+        int offset = GameWorld.WIDTH / 2 + 100 + rng.nextInt(200);
+        int x = (rng.nextBoolean() ? playerCenter + offset : playerCenter - offset) - enemyWidth / 2;
+        if (x < 0) x = playerCenter + offset - enemyWidth / 2;
+        if (x > levelRight - enemyWidth) x = playerCenter - offset - enemyWidth / 2;
+        return Math.max(0, Math.min(x, levelRight - enemyWidth));
+    }
+}
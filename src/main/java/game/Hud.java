@@ -0,0 +1,261 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * HUD drawn from cached widget images. Each widget (health bar, score, buffs, boss bar, end
+ * screens) is laid out and rasterised only when the value it shows changes; every other frame
+ * it is a single blit. Fonts and colours are created once.
+ */
+public class Hud {
+    private static final int WIDTH = GameWorld.WIDTH;
+    private static final int HEIGHT = GameWorld.HEIGHT;
+
+    private static final Font SCORE_FONT = new Font("Arial", Font.BOLD, 24);
+    private static final Font BUFF_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font BOSS_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 60);
+    private static final Font VICTORY_FONT = new Font("Arial", Font.BOLD, 70);
+    private static final Font HEADLINE_FONT = new Font("Arial", Font.BOLD, 40);
+    private static final Font FINAL_SCORE_FONT = new Font("Arial", Font.BOLD, 30);
+    private static final Font HINT_FONT = new Font("Arial", Font.PLAIN, 20);
+
+    private static final Color PANEL = new Color(50, 50, 60, 200);
+    private static final Color GOLD = new Color(255, 215, 0);
+    private static final Color DIM = new Color(0, 0, 0, 180);
+    private static final Color VICTORY_TINT = new Color(255, 215, 0, 70);
+
+    private static final Metrics.Gauge G_REBUILDS = Metrics.gauge("render.hud.rebuilds");
+
+    // FontMetrics สำหรับวัดตอน layout (ไม่ต้องมี Graphics ของจอ)
+    private static final Graphics2D SCRATCH = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+    /** One HUD element cached as an image; paint() draws in HUD coordinates inside (x, y, w, h). */
+    private abstract static class Widget {
+        int x, y, w, h;
+        private BufferedImage image;
+        private long key;
+
+        abstract void layout();
+        abstract void paint(Graphics2D g);
+
+        final void draw(Graphics2D g, long key, int dx, int dy) {
+            if (image == null || key != this.key) {
+                layout();
+                rasterise(g.getDeviceConfiguration());
+                this.key = key;
+            }
+            g.drawImage(image, x + dx, y + dy, null);
+        }
+
+        private void rasterise(GraphicsConfiguration gc) {
+            int iw = Math.max(1, w), ih = Math.max(1, h);
+            if (image == null || image.getWidth() != iw || image.getHeight() != ih) {
+                if (image != null) image.flush();
+                image = gc != null
+                        ? gc.createCompatibleImage(iw, ih, Transparency.TRANSLUCENT)
+                        : new BufferedImage(iw, ih, BufferedImage.TYPE_INT_ARGB);
+            }
+            Graphics2D g = image.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, iw, ih);
+            g.setComposite(AlphaComposite.SrcOver);
+            g.translate(-x, -y);
+            paint(g);
+            g.dispose();
+            G_REBUILDS.set(G_REBUILDS.get() + 1);
+        }
+    }
+
+    private static FontMetrics metrics(Font font) {
+        return SCRATCH.getFontMetrics(font);
+    }
+
+    // ============================ Player HUD ============================
+    private int health;
+    private final Widget healthBar = new Widget() {
+        @Override void layout() {
+            x = 15; y = 15; w = 215; h = 35;
+        }
+
+        @Override void paint(Graphics2D g) {
+            g.setColor(PANEL);
+            g.fillRoundRect(15, 15, 214, 34, 10, 10);
+            g.setColor(Color.RED);
+            g.fillRoundRect(20, 20, health * 2, 24, 8, 8);
+            g.setColor(Color.WHITE);
+            g.drawRoundRect(20, 20, 204, 24, 8, 8);
+        }
+    };
+
+    private String scoreText;
+    private int score;
+    private final Widget scoreLabel = new Widget() {
+        @Override void layout() {
+            scoreText = "Score: " + score;
+            FontMetrics fm = metrics(SCORE_FONT);
+            x = 18;
+            y = 70 - fm.getAscent() - 2;
+            w = fm.stringWidth(scoreText) + 4;
+            h = fm.getAscent() + fm.getDescent() + 4;
+        }
+
+        @Override void paint(Graphics2D g) {
+            g.setFont(SCORE_FONT);
+            g.setColor(Color.YELLOW);
+            g.drawString(scoreText, 20, 70);
+        }
+    };
+
+    private boolean speedBuff, powerBuff;
+    private int buffSeconds;
+    private final Widget buffs = new Widget() {
+        @Override void layout() {
+            FontMetrics fm = metrics(BUFF_FONT);
+            x = 18;
+            y = 110 - fm.getAscent() - 2;
+            w = Math.max(fm.stringWidth(speedText()), fm.stringWidth(powerText())) + 4;
+            h = 20 + fm.getAscent() + fm.getDescent() + 4;
+        }
+
+        @Override void paint(Graphics2D g) {
+            int y = 110;
+            g.setFont(BUFF_FONT);
+            if (speedBuff) {
+                g.setColor(Color.CYAN);
+                g.drawString(speedText(), 20, y);
+                y += 20;
+            }
+            if (powerBuff) {
+                g.setColor(Color.ORANGE);
+                g.drawString(powerText(), 20, y);
+            }
+        }
+
+        private String speedText() { return "⚡ Speed Up (" + buffSeconds + "s)"; }
+        private String powerText() { return "💪 Power Up (" + buffSeconds + "s)"; }
+    };
+
+    /** Health bar, score and active buffs in the top-left corner. */
+    public void drawPlayerHud(Graphics2D g, Player player, int score) {
+        health = player.health;
+        healthBar.draw(g, health, 0, 0);
+
+        this.score = score;
+        scoreLabel.draw(g, score, 0, 0);
+
+        if (player.speedBuff || player.powerBuff) {
+            speedBuff = player.speedBuff;
+            powerBuff = player.powerBuff;
+            buffSeconds = player.buffTimer / 60;
+            long key = ((long) buffSeconds << 2) | (speedBuff ? 1 : 0) | (powerBuff ? 2 : 0);
+            buffs.draw(g, key, 0, 0);
+        }
+    }
+
+    // ============================ Boss bar ============================
+    // พิกัดใน widget: มุมซ้ายบนของ bar อยู่ที่ (0, BOSS_LABEL_SPACE)
+    private static final int BOSS_LABEL_SPACE = 24;
+    private static final int BOSS_BAR_HEIGHT = 12;
+
+    private Boss boss;
+    private final Widget bossBar = new Widget() {
+        @Override void layout() {
+            x = 0; y = 0; w = boss.width + 1; h = BOSS_LABEL_SPACE + BOSS_BAR_HEIGHT + 1;
+        }
+
+        @Override void paint(Graphics2D g) {
+            int barWidth = boss.width;
+            int barX = 0;
+            int barY = BOSS_LABEL_SPACE;
+
+            // Background
+            g.setColor(new Color(50, 50, 50, 200));
+            g.fillRect(barX, barY, barWidth, BOSS_BAR_HEIGHT);
+
+            // Health bar
+            int currentBarWidth = (int) ((double) boss.health / boss.maxHealth * barWidth);
+            Color healthColor = boss.enraged ? new Color(255, 0, 0) : new Color(200, 0, 0);
+            Color healthColor2 = new Color(255, 100, 0);
+            g.setPaint(new GradientPaint(barX, barY, healthColor, barX + currentBarWidth, barY, healthColor2));
+            g.fillRect(barX, barY, currentBarWidth, BOSS_BAR_HEIGHT);
+
+            // Border
+            g.setColor(GOLD);
+            g.drawRect(barX, barY, barWidth, BOSS_BAR_HEIGHT);
+
+            // Boss label
+            g.setFont(BOSS_FONT);
+            g.setColor(boss.enraged ? new Color(255, 50, 50) : GOLD);
+            String bossText = boss.enraged ? "BOSS - ENRAGED!" : "BOSS";
+            int textWidth = g.getFontMetrics().stringWidth(bossText);
+            g.drawString(bossText, barX + barWidth / 2 - textWidth / 2, barY - 5);
+        }
+    };
+
+    /** Boss health bar and label above a boss drawn at (rx, ry), in world coordinates. */
+    public void drawBossBar(Graphics2D g, Boss b, int rx, int ry) {
+        boss = b;
+        long key = ((long) b.health << 1) | (b.enraged ? 1 : 0);
+        bossBar.draw(g, key, rx, ry - 25 - BOSS_LABEL_SPACE);
+    }
+
+    // ============================ End screens ============================
+    private static final int BAND_Y = HEIGHT / 2 - 140;
+    private static final int BAND_H = 260;
+
+    private int finalScore;
+    private final Widget gameOverText = new Widget() {
+        @Override void layout() {
+            x = 0; y = BAND_Y; w = WIDTH; h = BAND_H;
+        }
+
+        @Override void paint(Graphics2D g) {
+            g.setColor(new Color(200, 50, 50));
+            drawCentered(g, TITLE_FONT, "YOU DIED", HEIGHT / 2 - 30);
+
+            g.setColor(Color.WHITE);
+            drawCentered(g, FINAL_SCORE_FONT, "Final Score: " + finalScore, HEIGHT / 2 + 20);
+            drawCentered(g, HINT_FONT, "Press R to Restart", HEIGHT / 2 + 60);
+        }
+    };
+
+    private final Widget gameWonText = new Widget() {
+        @Override void layout() {
+            x = 0; y = BAND_Y; w = WIDTH; h = BAND_H;
+        }
+
+        @Override void paint(Graphics2D g) {
+            g.setColor(GOLD);
+            drawCentered(g, VICTORY_FONT, "VICTORY!", HEIGHT / 2 - 50);
+
+            g.setColor(Color.WHITE);
+            drawCentered(g, HEADLINE_FONT, "Boss Defeated!", HEIGHT / 2 + 10);
+            drawCentered(g, FINAL_SCORE_FONT, "Final Score: " + finalScore, HEIGHT / 2 + 60);
+
+            g.setColor(GOLD);
+            drawCentered(g, HINT_FONT, "Press R to Play Again", HEIGHT / 2 + 100);
+        }
+    };
+
+    public void drawGameOver(Graphics2D g, int score) {
+        g.setColor(DIM);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        finalScore = score;
+        gameOverText.draw(g, score, 0, 0);
+    }
+
+    public void drawGameWon(Graphics2D g, int score) {
+        g.setColor(VICTORY_TINT);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        finalScore = score;
+        gameWonText.draw(g, score, 0, 0);
+    }
+
+    private static void drawCentered(Graphics2D g, Font font, String text, int baseline) {
+        g.setFont(font);
+        int w = g.getFontMetrics().stringWidth(text);
+        g.drawString(text, WIDTH / 2 - w / 2, baseline);
+    }
+}
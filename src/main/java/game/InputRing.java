@@ -0,0 +1,67 @@
+package game;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring of key events for one producer (the EDT) and one consumer (the game loop).
+ * Each event is a key code, pressed/released and the System.nanoTime() it was captured at,
+ * stored in primitive arrays, so neither side allocates or blocks. When the ring is full the
+ * newest event is dropped and counted; at 16 ms per drain that takes hundreds of keys per tick.
+ */
+public class InputRing {
+    /** Receives drained events, oldest first. */
+    public interface Sink {
+        void key(int keyCode, boolean pressed, long nanos);
+    }
+
+    private final int mask;
+    private final int[] keys;
+    private final long[] times;
+    // tail เขียนโดย producer, head เขียนโดย consumer; lazySet พอ เพราะอีกฝั่งแค่อ่าน
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long headCache; // producer only
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** Capacity is rounded up to a power of two. */
+    public InputRing(int capacity) {
+        int n = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = n - 1;
+        keys = new int[n];
+        times = new long[n];
+    }
+
+    /** Producer side; false if the ring was full and the event was dropped. */
+    public boolean offer(int keyCode, boolean pressed, long nanos) {
+        long t = tail.get();
+        if (t - headCache > mask) {
+            headCache = head.get();
+            if (t - headCache > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        int i = (int) t & mask;
+        keys[i] = (keyCode << 1) | (pressed ? 1 : 0);
+        times[i] = nanos;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** Consumer side: hands every event published so far to sink and returns how many. */
+    public int drain(Sink sink) {
+        long h = head.get();
+        long t = tail.get();
+        for (long s = h; s < t; s++) {
+            int i = (int) s & mask;
+            int k = keys[i];
+            sink.key(k >>> 1, (k & 1) != 0, times[i]);
+        }
+        if (t != h) head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,198 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Converts a text level source into the binary format read by LevelFile.
+ *
+ *   java game.LevelConverter levels/classic.txt levels/classic.lvl
+ *
+ * Source lines ('#' starts a comment):
+ * <pre>
+ *   size     width height
+ *   player   x y
+ *   platform x y w h [alpha]    alpha below 1 makes it transparent, 0 = invisible
+ *   enemy    x y
+ *   potion   x y health|speed|power
+ *   boss     x y score           boss appears here once score is reached (while loaded)
+ * </pre>
+ */
+public final class LevelConverter {
+    // record ระหว่างแปลง: kind, arg, flags, x, y, w, h
+    private static final int KIND = 0, ARG = 1, FLAGS = 2, X = 3, Y = 4, W = 5, H = 6;
+
+    private int width = -1, height = GameWorld.HEIGHT;
+    private int playerX = 100, playerY = 100;
+    private final List<int[]> platforms = new ArrayList<>();
+    private final List<int[]> spawns = new ArrayList<>();
+
+    private LevelConverter() {}
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: java game.LevelConverter <source.txt> <level.lvl>");
+            System.exit(2);
+        }
+        try {
+            long t0 = System.nanoTime();
+            LevelConverter level = parse(Path.of(args[0]));
+            long bytes = level.write(Path.of(args[1]));
+            System.out.printf("✅ %s: %d platforms, %d spawns, %d bytes (%.1f ms)%n", args[1],
+                    level.platforms.size(), level.spawns.size(), bytes, (System.nanoTime() - t0) / 1e6);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /** Reads a level source; errors name the file and line. */
+    static LevelConverter parse(Path source) throws IOException {
+        LevelConverter level = new LevelConverter();
+        List<String> lines = Files.readAllLines(source);
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n);
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            try {
+                level.parseLine(line.split("\\s+"));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(source + ":" + (n + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        if (level.width <= 0) throw new IllegalArgumentException(source + ": missing 'size'");
+        return level;
+    }
+
+    private void parseLine(String[] t) {
+        switch (t[0]) {
+            case "size" -> {
+                args(t, 2, 2);
+                width = Integer.parseInt(t[1]);
+                height = Integer.parseInt(t[2]);
+            }
+            case "player" -> {
+                args(t, 2, 2);
+                playerX = Integer.parseInt(t[1]);
+                playerY = Integer.parseInt(t[2]);
+            }
+            case "platform" -> {
+                args(t, 4, 5);
+                float alpha = t.length > 5 ? Float.parseFloat(t[5]) : 1f;
+                if (alpha < 0 || alpha > 1) throw new IllegalArgumentException("alpha must be 0..1");
+                int w = Integer.parseInt(t[3]), h = Integer.parseInt(t[4]);
+                // กว้าง/สูง 0 หรือติดลบ ไม่ลง chunk ไหนเลย -> หายเงียบๆ ตอน write()
+                if (w <= 0 || h <= 0) throw new IllegalArgumentException("width and height must be positive");
+                platforms.add(new int[] {
+                        LevelFile.PLATFORM, Math.round(alpha * 255), alpha < 1 ? LevelFile.TRANSPARENT : 0,
+                        Integer.parseInt(t[1]), Integer.parseInt(t[2]), w, h});
+            }
+            case "enemy" -> {
+                args(t, 2, 2);
+                spawns.add(new int[] {LevelFile.ENEMY, 0, 0, Integer.parseInt(t[1]), Integer.parseInt(t[2]), 0, 0});
+            }
+            case "potion" -> {
+                args(t, 3, 3);
+                int type = Potion.Type.valueOf(t[3].toUpperCase(Locale.ROOT)).ordinal();
+                spawns.add(new int[] {LevelFile.POTION, type, 0, Integer.parseInt(t[1]), Integer.parseInt(t[2]), 0, 0});
+            }
+            case "boss" -> {
+                args(t, 3, 3);
+                spawns.add(new int[] {LevelFile.BOSS, 0, 0, Integer.parseInt(t[1]), Integer.parseInt(t[2]),
+                        Integer.parseInt(t[3]), 0});
+            }
+            default -> throw new IllegalArgumentException("unknown entry '" + t[0] + "'");
+        }
+    }
+
+    private static void args(String[] t, int min, int max) {
+        int n = t.length - 1;
+        if (n < min || n > max) {
+            throw new IllegalArgumentException("'" + t[0] + "' takes " + (min == max ? min : min + "-" + max)
+                    + " values, got " + n);
+        }
+    }
+
+    /** Writes the binary level and returns its size in bytes. */
+    long write(Path out) throws IOException {
+        int cw = WorldStreamer.CHUNK_WIDTH;
+        int chunkCount = Math.max(1, (width + cw - 1) / cw);
+
+        // จัดลง chunk: platform ที่คร่อมขอบ chunk ถูกตัดเป็นชิ้น (ติด flag ด้านที่ต่อกัน),
+        // ของที่อยู่นอกด่านไปอยู่ chunk แรก/สุดท้าย
+        List<List<int[]>> chunkPlatforms = buckets(chunkCount);
+        List<List<int[]>> chunkSpawns = buckets(chunkCount);
+        for (int[] p : platforms) {
+            int right = p[X] + p[W];
+            int a = chunkOf(p[X], chunkCount), b = chunkOf(right - 1, chunkCount);
+            for (int k = a; k <= b; k++) {
+                int x0 = k == a ? p[X] : k * cw;
+                int x1 = k == b ? right : (k + 1) * cw;
+                int[] piece = p.clone();
+                piece[X] = x0;
+                piece[W] = x1 - x0;
+                if (k > a) piece[FLAGS] |= LevelFile.CUT_LEFT;
+                if (k < b) piece[FLAGS] |= LevelFile.CUT_RIGHT;
+                chunkPlatforms.get(k).add(piece);
+            }
+        }
+        int bossTriggers = 0;
+        for (int[] s : spawns) {
+            chunkSpawns.get(chunkOf(s[X], chunkCount)).add(s);
+            if (s[KIND] == LevelFile.BOSS) bossTriggers++;
+        }
+
+        int recordCount = 0;
+        for (int k = 0; k < chunkCount; k++) recordCount += chunkPlatforms.get(k).size() + chunkSpawns.get(k).size();
+
+        int size = LevelFile.HEADER_BYTES + chunkCount * LevelFile.CHUNK_BYTES + recordCount * LevelFile.RECORD_BYTES;
+        ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(LevelFile.MAGIC).putShort(LevelFile.VERSION).putShort((short) 0)
+                .putInt(width).putInt(height).putInt(cw).putInt(chunkCount).putInt(recordCount)
+                .putInt(playerX).putInt(playerY).putInt(bossTriggers);
+        while (buf.position() < LevelFile.HEADER_BYTES) buf.put((byte) 0);
+
+        int first = 0;
+        for (int k = 0; k < chunkCount; k++) {
+            int np = chunkPlatforms.get(k).size(), ns = chunkSpawns.get(k).size();
+            buf.putInt(first).putInt(np).putInt(ns);
+            first += np + ns;
+        }
+        for (int k = 0; k < chunkCount; k++) {
+            for (int[] r : chunkPlatforms.get(k)) put(buf, r);
+            for (int[] r : chunkSpawns.get(k)) put(buf, r);
+        }
+
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+        return size;
+    }
+
+    private static List<List<int[]>> buckets(int n) {
+        List<List<int[]>> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) list.add(new ArrayList<>());
+        return list;
+    }
+
+    private static int chunkOf(int x, int chunkCount) {
+        return Math.max(0, Math.min(chunkCount - 1, Math.floorDiv(x, WorldStreamer.CHUNK_WIDTH)));
+    }
+
+    private static void put(ByteBuffer buf, int[] r) {
+        buf.put((byte) r[KIND]).put((byte) r[ARG]).putShort((short) r[FLAGS])
+                .putInt(r[X]).putInt(r[Y]).putInt(r[W]).putInt(r[H]);
+    }
+}
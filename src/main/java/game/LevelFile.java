@@ -0,0 +1,155 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a binary level (.lvl) mapped straight from disk. Opening checks the header,
+ * the chunk table and the kind and argument of every record (one pass of absolute gets, no
+ * objects), so a damaged file fails in open() instead of on the generator thread mid-game;
+ * chunks are then read on demand by the WorldStreamer with absolute gets on the mapping (no
+ * per-record objects besides the Platforms themselves, and safe to call from the generator thread).
+ *
+ * Layout, little-endian (written by LevelConverter):
+ * <pre>
+ *   header   MAGIC, VERSION(short), reserved(short), width, height, chunkWidth, chunkCount,
+ *            recordCount, playerX, playerY, bossTriggers                        (HEADER_BYTES)
+ *   chunks   chunkCount x { firstRecord, platformCount, spawnCount }           (CHUNK_BYTES)
+ *   records  recordCount x { kind(byte), arg(byte), flags(short), x, y, w, h } (RECORD_BYTES)
+ * </pre>
+ * Records are grouped by chunk, platforms first. Platforms wider than a chunk are split at
+ * chunk edges by the converter; the pieces are flagged CUT_LEFT / CUT_RIGHT on the sides where
+ * they continue, so the renderer doesn't outline the seam. Spawn records use w as an extra
+ * argument (boss score).
+ */
+public final class LevelFile {
+    public static final int MAGIC = 0x564C4B53; // "SKLV"
+    public static final short VERSION = 1;
+
+    public static final int HEADER_BYTES = 48;
+    public static final int CHUNK_BYTES = 12;
+    public static final int RECORD_BYTES = 20;
+
+    // record kind
+    public static final byte PLATFORM = 1;
+    public static final byte ENEMY = 2;
+    public static final byte POTION = 3;
+    public static final byte BOSS = 4;
+
+    // platform flags; arg = alpha 0..255
+    public static final short TRANSPARENT = 1;
+    public static final short CUT_LEFT = 2;
+    public static final short CUT_RIGHT = 4;
+
+    private final MappedByteBuffer buf;
+    private final int width, height, chunkCount, recordCount;
+    private final int playerX, playerY, bossTriggers;
+    private final int recordsOffset;
+
+    private LevelFile(MappedByteBuffer buf, Path path) throws IOException {
+        this.buf = buf;
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.capacity() < HEADER_BYTES || buf.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a level file");
+        }
+        short version = buf.getShort(4);
+        if (version != VERSION) {
+            throw new IOException(path + ": level version " + version + ", expected " + VERSION);
+        }
+        width = buf.getInt(8);
+        height = buf.getInt(12);
+        int chunkWidth = buf.getInt(16);
+        chunkCount = buf.getInt(20);
+        recordCount = buf.getInt(24);
+        playerX = buf.getInt(28);
+        playerY = buf.getInt(32);
+        bossTriggers = buf.getInt(36);
+        if (chunkWidth != WorldStreamer.CHUNK_WIDTH) {
+            throw new IOException(path + ": chunk width " + chunkWidth + " != " + WorldStreamer.CHUNK_WIDTH
+                    + ", convert it again with LevelConverter");
+        }
+        long tableEnd = HEADER_BYTES + (long) chunkCount * CHUNK_BYTES;
+        long expected = tableEnd + (long) recordCount * RECORD_BYTES;
+        if (chunkCount <= 0 || recordCount < 0 || buf.capacity() < expected) {
+            throw new IOException(path + " is truncated (" + buf.capacity() + " of " + expected + " bytes)");
+        }
+        recordsOffset = (int) tableEnd;
+        checkChunks(path);
+    }
+
+    // chunk table ต้องเรียง record ต่อกันพอดีทั้งไฟล์ และ record แต่ละตัวต้องเป็นชนิดที่ readChunk อ่านได้
+    private void checkChunks(Path path) throws IOException {
+        long next = 0;
+        for (int k = 0; k < chunkCount; k++) {
+            int entry = HEADER_BYTES + k * CHUNK_BYTES;
+            int first = buf.getInt(entry), platformCount = buf.getInt(entry + 4), spawnCount = buf.getInt(entry + 8);
+            if (first != next || platformCount < 0 || spawnCount < 0
+                    || next + platformCount + spawnCount > recordCount) {
+                throw new IOException(path + ": chunk " + k + " has a bad record range");
+            }
+            for (int r = first; r < first + platformCount + spawnCount; r++) {
+                int at = recordsOffset + r * RECORD_BYTES;
+                byte kind = buf.get(at);
+                boolean ok = r < first + platformCount
+                        ? kind == PLATFORM && buf.getInt(at + 12) >= 0 && buf.getInt(at + 16) >= 0
+                        : kind == ENEMY || kind == BOSS
+                                || kind == POTION && buf.get(at + 1) >= 0 && buf.get(at + 1) < Potion.Type.values().length;
+                if (!ok) throw new IOException(path + ": chunk " + k + " has a bad record " + r);
+            }
+            next += platformCount + spawnCount;
+        }
+        if (next != recordCount) {
+            throw new IOException(path + ": chunk table covers " + next + " of " + recordCount + " records");
+        }
+    }
+
+    /** Maps the file; the mapping stays valid after the channel is closed. */
+    public static LevelFile open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new LevelFile(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()), path);
+        }
+    }
+
+    public int width() { return width; }
+    public int height() { return height; }
+    public int chunkCount() { return chunkCount; }
+    public int recordCount() { return recordCount; }
+    public int playerX() { return playerX; }
+    public int playerY() { return playerY; }
+    public int bossTriggers() { return bossTriggers; }
+
+    /** Builds chunk k's platforms and spawn list directly from the mapped records. */
+    WorldStreamer.Chunk readChunk(int k) {
+        int entry = HEADER_BYTES + k * CHUNK_BYTES;
+        int first = buf.getInt(entry);
+        int platformCount = buf.getInt(entry + 4);
+        int spawnCount = buf.getInt(entry + 8);
+
+        WorldStreamer.Chunk c = new WorldStreamer.Chunk(k);
+        int at = recordsOffset + first * RECORD_BYTES;
+        for (int i = 0; i < platformCount; i++, at += RECORD_BYTES) {
+            int alpha = buf.get(at + 1) & 0xFF;
+            short flags = buf.getShort(at + 2);
+            Platform p = new Platform(buf.getInt(at + 4), buf.getInt(at + 8),
+                    buf.getInt(at + 12), buf.getInt(at + 16), (flags & TRANSPARENT) != 0, alpha / 255f);
+            p.cutLeft = (flags & CUT_LEFT) != 0;
+            p.cutRight = (flags & CUT_RIGHT) != 0;
+            c.platforms.add(p);
+        }
+
+        int[] spawns = new int[spawnCount * WorldStreamer.SPAWN_STRIDE];
+        for (int i = 0, s = 0; i < spawnCount; i++, at += RECORD_BYTES) {
+            byte kind = buf.get(at);
+            spawns[s++] = kind;
+            spawns[s++] = buf.getInt(at + 4);
+            spawns[s++] = buf.getInt(at + 8);
+            spawns[s++] = kind == BOSS ? buf.getInt(at + 12) : buf.get(at + 1);
+        }
+        c.spawns = spawns;
+        return c;
+    }
+}
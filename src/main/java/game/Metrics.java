@@ -0,0 +1,155 @@
+package game;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Process-wide metrics registry: named rolling timers and gauges.
+ * Writers are the game-loop and render threads; readers (PerfOverlay, tools) can poll any time.
+ *
+ *   private static final Metrics.Timer UPDATE = Metrics.timer("sim.player");
+ *   long t0 = System.nanoTime(); ...; UPDATE.record(System.nanoTime() - t0);
+ */
+public final class Metrics {
+    /** Samples kept per timer: about 4 seconds of ticks or frames at 60 Hz. */
+    public static final int WINDOW = 256;
+
+    private static final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private static final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+
+    private Metrics() {}
+
+    public static Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    public static Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, Gauge::new);
+    }
+
+    /** All timers, sorted by name. */
+    public static Iterable<Timer> timers() {
+        return timers.values();
+    }
+
+    /** All gauges, sorted by name. */
+    public static Iterable<Gauge> gauges() {
+        return gauges.values();
+    }
+
+    /** Rolling window of durations in nanoseconds with p50 / p99 / max over the window. */
+    public static final class Timer {
+        private final String name;
+        private final long[] samples = new long[WINDOW];
+        private final long[] sorted = new long[WINDOW];
+        private int next;
+        private int size;
+        private long total;
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        public String name() { return name; }
+
+        public synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % WINDOW;
+            if (size < WINDOW) size++;
+            total++;
+        }
+
+        /** Samples recorded since start (not just the ones in the window). */
+        public synchronized long count() { return total; }
+
+        public synchronized long last() {
+            return size == 0 ? 0 : samples[(next + WINDOW - 1) % WINDOW];
+        }
+
+        /** Fills out[0..2] with p50, p99 and max of the current window (0 when empty). */
+        public synchronized void percentiles(long[] out) {
+            if (size == 0) {
+                out[0] = out[1] = out[2] = 0;
+                return;
+            }
+            System.arraycopy(samples, 0, sorted, 0, size);
+            Arrays.sort(sorted, 0, size);
+            out[0] = sorted[(size - 1) / 2];
+            out[1] = sorted[(int) Math.ceil(size * 0.99) - 1];
+            out[2] = sorted[size - 1];
+        }
+    }
+
+    /** Last written value; set by whoever owns the number. */
+    public static final class Gauge {
+        private final String name;
+        private volatile long value;
+
+        private Gauge(String name) {
+            this.name = name;
+        }
+
+        public String name() { return name; }
+        public long get() { return value; }
+        public void set(long value) { this.value = value; }
+    }
+
+    // ============================ JVM ============================
+    private static final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private static final Map<Long, Long> allocatedByThread = new HashMap<>();
+    private static long allocatedByDeadThreads;
+    private static long lastJvmSampleNanos;
+    private static long lastAllocated;
+
+    /**
+     * Refreshes the jvm.* gauges from the platform MXBeans: GC count and time, heap in use and
+     * allocation rate (bytes/s summed over live threads since the previous call). Cheap enough to
+     * call a few times a second, not every frame.
+     */
+    public static synchronized void sampleJvm() {
+        long gcCount = 0, gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+        gauge("jvm.gc.count").set(gcCount);
+        gauge("jvm.gc.timeMs").set(gcMillis);
+        gauge("jvm.heap.usedBytes").set(memory.getHeapMemoryUsage().getUsed());
+
+        if (threads instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()) {
+            long[] ids = sun.getAllThreadIds();
+            long[] bytes = sun.getThreadAllocatedBytes(ids);
+            // เธรดที่ตายไปแล้วหายจาก ids -> ย้ายยอดล่าสุดไปรวมไว้ ไม่ให้ยอดรวมลดลง (map ไม่โตตาม id ที่ตาย)
+            long[] live = ids.clone();
+            Arrays.sort(live);
+            for (Iterator<Map.Entry<Long, Long>> it = allocatedByThread.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, Long> e = it.next();
+                if (Arrays.binarySearch(live, e.getKey()) < 0) {
+                    allocatedByDeadThreads += e.getValue();
+                    it.remove();
+                }
+            }
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] > 0) allocatedByThread.put(ids[i], bytes[i]);
+            }
+            long allocated = allocatedByDeadThreads;
+            for (long b : allocatedByThread.values()) allocated += b;
+
+            long now = System.nanoTime();
+            if (lastJvmSampleNanos != 0 && now > lastJvmSampleNanos) {
+                long rate = (allocated - lastAllocated) * 1_000_000_000L / (now - lastJvmSampleNanos);
+                gauge("jvm.alloc.bytesPerSec").set(Math.max(0, rate));
+            }
+            lastJvmSampleNanos = now;
+            lastAllocated = allocated;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package game;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parallax background made of any number of layers. Each layer is scaled once into a
+ * display-compatible VolatileImage of exactly viewport size in device pixels (so a scaled
+ * full-screen viewport or HiDPI transform is baked in too), then blitted every frame with a
+ * plain translation. Layers are re-rendered only when that size or the graphics device changes,
+ * or when the video memory copy is lost.
+ */
+public class ParallaxBackground {
+
+    private static final class Layer {
+        final BufferedImage source;
+        final double speed;
+        final int transparency;
+        Image cached; // VolatileImage ถ้าใช้ได้, ไม่งั้น BufferedImage
+
+        Layer(BufferedImage source, double speed) {
+            this.source = source;
+            this.speed = speed;
+            this.transparency = isOpaque(source) ? Transparency.OPAQUE : Transparency.TRANSLUCENT;
+        }
+    }
+
+    private final List<Layer> layers = new ArrayList<>();
+    private int width, height;
+    // ขนาด cache จริงเป็น device pixel = viewport x scale ของ transform ตอนวาด
+    private int cacheWidth, cacheHeight;
+
+    public ParallaxBackground(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /** Adds a layer drawn behind the ones added after it. speed 0 = fixed, 1 = moves with the camera. */
+    public boolean addLayer(String path, double speed) {
+        BufferedImage img = SpriteCache.image(path);
+        if (img == null) return false;
+        layers.add(new Layer(img, speed));
+        return true;
+    }
+
+    public int layerCount() {
+        return layers.size();
+    }
+
+    /** Changes the viewport size; every layer is rebuilt on the next draw. */
+    public void resize(int width, int height) {
+        if (width == this.width && height == this.height) return;
+        this.width = width;
+        this.height = height;
+        for (Layer layer : layers) flush(layer);
+    }
+
+    public void draw(Graphics2D g, int cameraX) {
+        AffineTransform at = g.getTransform();
+        boolean axisAligned = at.getShearX() == 0 && at.getShearY() == 0;
+        double sx = axisAligned ? at.getScaleX() : 1;
+        double sy = axisAligned ? at.getScaleY() : 1;
+        int cw = Math.max(1, (int) Math.round(width * sx));
+        int ch = Math.max(1, (int) Math.round(height * sy));
+        if (cw != cacheWidth || ch != cacheHeight) {
+            flush();
+            cacheWidth = cw;
+            cacheHeight = ch;
+        }
+        if (axisAligned) {
+            g.setTransform(AffineTransform.getTranslateInstance(at.getTranslateX(), at.getTranslateY()));
+        }
+
+        GraphicsConfiguration gc = g.getDeviceConfiguration();
+        try {
+            for (Layer layer : layers) {
+                int offset = (int) Math.round((int) (-(cameraX * layer.speed) % width) * sx);
+                // เช็ค contentsLost หลังวาด -> ถ้าหายกลางเฟรม วาดใหม่ทันที (ปกติวนรอบเดียว)
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    Image img = validate(layer, gc);
+                    g.drawImage(img, offset, 0, null);
+                    g.drawImage(img, offset + cacheWidth, 0, null);
+                    if (!(img instanceof VolatileImage vi) || !vi.contentsLost()) break;
+                }
+            }
+        } finally {
+            g.setTransform(at);
+        }
+    }
+
+    public void flush() {
+        for (Layer layer : layers) flush(layer);
+    }
+
+    private static void flush(Layer layer) {
+        if (layer.cached != null) layer.cached.flush();
+        layer.cached = null;
+    }
+
+    private Image validate(Layer layer, GraphicsConfiguration gc) {
+        if (layer.cached instanceof VolatileImage vi) {
+            switch (vi.validate(gc)) {
+                case VolatileImage.IMAGE_OK -> { return vi; }
+                case VolatileImage.IMAGE_RESTORED -> {
+                    paint(layer, vi);
+                    return vi;
+                }
+                default -> flush(layer); // IMAGE_INCOMPATIBLE: จอ/config เปลี่ยน
+            }
+        }
+        if (layer.cached == null) {
+            layer.cached = create(gc, layer.transparency);
+            paint(layer, layer.cached);
+        }
+        return layer.cached;
+    }
+
+    private Image create(GraphicsConfiguration gc, int transparency) {
+        if (gc != null) {
+            try {
+                VolatileImage vi = gc.createCompatibleVolatileImage(cacheWidth, cacheHeight, transparency);
+                if (vi != null) return vi;
+            } catch (UnsupportedOperationException | IllegalArgumentException ignored) {
+                // ไม่รองรับ volatile (เช่น headless) -> ใช้ BufferedImage แทน
+            }
+            return gc.createCompatibleImage(cacheWidth, cacheHeight, transparency);
+        }
+        return new BufferedImage(cacheWidth, cacheHeight,
+                transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+
+    // scale ครั้งเดียวตอนสร้าง cache ด้วย bilinear
+    private void paint(Layer layer, Image target) {
+        Graphics2D g = (Graphics2D) target.getGraphics();
+        if (layer.transparency != Transparency.OPAQUE) {
+            g.setComposite(AlphaComposite.Src);
+            g.setColor(new Color(0, 0, 0, 0));
+            g.fillRect(0, 0, cacheWidth, cacheHeight);
+            g.setComposite(AlphaComposite.SrcOver);
+        }
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(layer.source, 0, 0, cacheWidth, cacheHeight, null);
+        g.dispose();
+    }
+
+    private static boolean isOpaque(BufferedImage img) {
+        if (img.getTransparency() == Transparency.OPAQUE) return true;
+        int w = img.getWidth();
+        int[] row = new int[w];
+        for (int y = 0; y < img.getHeight(); y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            for (int argb : row) {
+                if ((argb >>> 24) != 0xFF) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws a ParticleSystem by blitting pre-rendered stamps picked by colour and alpha bucket,
+ * instead of building a Color and filling an oval per spark. Stamps go through the RenderQueue,
+ * which groups sparks sharing a stamp.
+ */
+public final class ParticleRenderer {
+    private static final int SIZE = 6;
+    private static final int ALPHA_BUCKETS = 16;
+
+    private static BufferedImage[][] stamps;
+
+    private ParticleRenderer() {}
+
+    /** Queues every particle inside [viewX, viewX + viewW), interpolated by t. */
+    public static void submit(RenderQueue queue, ParticleSystem ps, double t, int viewX, int viewW) {
+        BufferedImage[][] stamps = stamps();
+        float ft = (float) t;
+        int half = SIZE / 2;
+        for (int i = 0; i < ps.count; i++) {
+            int rx = (int) (ps.prevX[i] + (ps.x[i] - ps.prevX[i]) * ft);
+            if (rx + half < viewX || rx - half > viewX + viewW) continue;
+            int ry = (int) (ps.prevY[i] + (ps.y[i] - ps.prevY[i]) * ft);
+            int a = ps.life[i] * (ALPHA_BUCKETS - 1) / ParticleSystem.MAX_LIFE;
+            if (a <= 0) continue;
+            queue.sprite(RenderQueue.LAYER_PARTICLES, stamps[ps.color[i]][Math.min(a, ALPHA_BUCKETS - 1)],
+                    rx - half, ry - half);
+        }
+    }
+
+    private static synchronized BufferedImage[][] stamps() {
+        if (stamps != null) return stamps;
+        BufferedImage[][] s = new BufferedImage[ParticleSystem.COLOR_BUCKETS][ALPHA_BUCKETS];
+        GraphicsConfiguration gc = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        for (int c = 0; c < ParticleSystem.COLOR_BUCKETS; c++) {
+            int green = 100 + c * 100 / ParticleSystem.COLOR_BUCKETS;
+            for (int a = 0; a < ALPHA_BUCKETS; a++) {
+                BufferedImage img = gc != null
+                        ? gc.createCompatibleImage(SIZE, SIZE, Transparency.TRANSLUCENT)
+                        : new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = img.createGraphics();
+                g.setColor(new Color(255, green, 100, a * 255 / (ALPHA_BUCKETS - 1)));
+                g.fillOval(0, 0, SIZE, SIZE);
+                g.dispose();
+                s[c][a] = img;
+            }
+        }
+        stamps = s;
+        return s;
+    }
+}
@@ -0,0 +1,157 @@
+package game;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hit sparks stored as parallel primitive arrays (structure of arrays).
+ * Fixed capacity, swap-remove on death and no allocation per tick. Drawing lives in ParticleRenderer.
+ */
+public class ParticleSystem {
+    public enum OverflowPolicy {
+        DROP,      // ถ้าเต็ม ไม่สร้างใหม่
+        OVERWRITE  // ถ้าเต็ม เขียนทับช่องถัดไปแบบวนรอบ
+    }
+
+    public static final int DEFAULT_CAPACITY = 32768;
+
+    static final int MAX_LIFE = 40;
+    // สีเดิมของ Particle: (255, 100..199, 100) -> แบ่ง green เป็น 8 ระดับ
+    static final int COLOR_BUCKETS = 8;
+
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final GameRng random = new GameRng(0);
+
+    final float[] x, y, prevX, prevY, vx, vy;
+    final int[] life;
+    final byte[] color;
+    int count;
+    private int overwriteCursor;
+    private long dropped;
+
+    public ParticleSystem(int capacity, OverflowPolicy policy) {
+        this.capacity = capacity;
+        this.policy = policy;
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        life = new int[capacity];
+        color = new byte[capacity];
+    }
+
+    public int size() { return count; }
+    public int capacity() { return capacity; }
+    public long dropped() { return dropped; }
+
+    public void reseed(long seed) {
+        random.setSeed(seed);
+    }
+
+    public void clear() {
+        count = 0;
+        overwriteCursor = 0;
+    }
+
+    /** Spawns n sparks flying out of (px, py) in random directions. */
+    public void burst(double px, double py, int n) {
+        for (int k = 0; k < n; k++) {
+            int i = allocate();
+            if (i < 0) return;
+            double angle = random.nextDouble() * Math.PI * 2;
+            double speed = 2 + random.nextDouble() * 3;
+            x[i] = prevX[i] = (float) px;
+            y[i] = prevY[i] = (float) py;
+            vx[i] = (float) (Math.cos(angle) * speed);
+            vy[i] = (float) (Math.sin(angle) * speed);
+            life[i] = 20 + random.nextInt(20);
+            color[i] = (byte) random.nextInt(COLOR_BUCKETS);
+        }
+    }
+
+    private int allocate() {
+        if (count < capacity) return count++;
+        if (policy == OverflowPolicy.DROP) {
+            dropped++;
+            return -1;
+        }
+        overwriteCursor = (overwriteCursor + 1) % capacity;
+        return overwriteCursor;
+    }
+
+    public void update() {
+        int i = 0;
+        while (i < count) {
+            if (--life[i] <= 0) {
+                // swap-remove: ย้ายตัวสุดท้ายมาแทน แล้วตรวจช่องเดิมซ้ำ
+                int last = --count;
+                x[i] = x[last];
+                y[i] = y[last];
+                vx[i] = vx[last];
+                vy[i] = vy[last];
+                life[i] = life[last];
+                color[i] = color[last];
+                continue;
+            }
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            x[i] += vx[i];
+            y[i] += vy[i];
+            vy[i] += 0.3f;
+            vx[i] *= 0.95f;
+            i++;
+        }
+    }
+
+    /** Copies only the particles whose current or previous x lies in [minX, maxX]; returns how many. */
+    int copyVisibleTo(ParticleSystem dst, float minX, float maxX) {
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            float px = x[i], qx = prevX[i];
+            if ((px < minX || px > maxX) && (qx < minX || qx > maxX)) continue;
+            dst.x[n] = px;
+            dst.y[n] = y[i];
+            dst.prevX[n] = qx;
+            dst.prevY[n] = prevY[i];
+            dst.life[n] = life[i];
+            dst.color[n] = color[i];
+            n++;
+        }
+        dst.count = n;
+        return n;
+    }
+
+    // ============================ Checkpoint ============================
+    void save(ByteBuffer b) {
+        b.putLong(random.state()).putInt(overwriteCursor).putInt(count);
+        for (int i = 0; i < count; i++) {
+            b.putFloat(x[i]).putFloat(y[i]).putFloat(prevX[i]).putFloat(prevY[i]).putFloat(vx[i]).putFloat(vy[i]);
+            b.put((byte) life[i]).put(color[i]);
+        }
+    }
+
+    /** Restores what save() wrote; sparks beyond this system's capacity are skipped. */
+    void load(ByteBuffer b) {
+        random.setSeed(b.getLong());
+        int cursor = b.getInt();
+        int n = b.getInt();
+        count = Math.min(n, capacity);
+        overwriteCursor = count < capacity ? cursor : cursor % capacity;
+        for (int i = 0; i < n; i++) {
+            if (i >= capacity) {
+                b.position(b.position() + 6 * 4 + 2);
+                continue;
+            }
+            x[i] = b.getFloat();
+            y[i] = b.getFloat();
+            prevX[i] = b.getFloat();
+            prevY[i] = b.getFloat();
+            vx[i] = b.getFloat();
+            vy[i] = b.getFloat();
+            life[i] = b.get();
+            color[i] = b.get();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package game;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * F3 performance overlay: per-phase timings and input latency (p50 / p99 / max over the
+ * Metrics window), entity and particle counts, GC and allocation rate. Text is rebuilt a few times a second
+ * so the overlay itself stays cheap; start visible with -Dgame.overlay=true.
+ */
+public class PerfOverlay {
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    // phase ที่แสดง ตามลำดับบนจอ: sim ก่อน แล้ว render แล้ว latency ของ input
+    private static final String[][] PHASES = {
+            {"sim.tick", "tick"},
+            {"sim.player", "  player"},
+            {"sim.enemies", "  enemies"},
+            {"sim.boss", "  boss"},
+            {"sim.potions", "  potions"},
+            {"sim.particles", "  particles"},
+            {"sim.horde", "  horde"},
+            {"render.frame", "frame"},
+            {"render.background", "  background"},
+            {"render.world", "  world"},
+            {"render.hud", "  hud"},
+            {"input.toTick", "key->tick"},
+            {"input.toFrame", "key->frame"},
+    };
+
+    private final Font font = new Font(Font.MONOSPACED, Font.PLAIN, 13);
+    private final long[] pct = new long[3];
+    private final List<String> lines = new ArrayList<>();
+    private long lastRefresh;
+    private volatile boolean visible = Boolean.getBoolean("game.overlay");
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    public void draw(Graphics2D g) {
+        long now = System.nanoTime();
+        if (now - lastRefresh >= REFRESH_NANOS || lines.isEmpty()) {
+            refresh();
+            lastRefresh = now;
+        }
+
+        g.setFont(font);
+        FontMetrics fm = g.getFontMetrics();
+        int lineH = fm.getHeight();
+        int w = 0;
+        for (String line : lines) w = Math.max(w, fm.stringWidth(line));
+        int x = GameWorld.WIDTH - w - 30;
+        int y = 20;
+
+        g.setColor(new Color(0, 0, 0, 170));
+        g.fillRoundRect(x - 10, y - 5, w + 20, lines.size() * lineH + 10, 10, 10);
+        g.setColor(new Color(180, 255, 180));
+        for (String line : lines) {
+            y += lineH;
+            g.drawString(line, x, y - fm.getDescent());
+        }
+    }
+
+    private void refresh() {
+        Metrics.sampleJvm();
+        lines.clear();
+        lines.add(String.format("%-12s %7s %7s %7s", "ms", "p50", "p99", "max"));
+        for (String[] phase : PHASES) {
+            Metrics.timer(phase[0]).percentiles(pct);
+            lines.add(String.format("%-12s %7.3f %7.3f %7.3f", phase[1], pct[0] / 1e6, pct[1] / 1e6, pct[2] / 1e6));
+        }
+        lines.add("");
+        lines.add(String.format("enemies %d (active %d)  potions %d (awake %d)",
+                Metrics.gauge("world.enemies").get(), Metrics.gauge("world.enemies.active").get(),
+                Metrics.gauge("world.potions").get(), Metrics.gauge("world.potions.awake").get()));
+        lines.add(String.format("particles %d", Metrics.gauge("world.particles").get()));
+        lines.add(String.format("drawn %d  culled %d",
+                Metrics.gauge("cull.drawn").get(), Metrics.gauge("cull.culled").get()));
+        lines.add(String.format("draw calls %d  state changes %d",
+                Metrics.gauge("render.drawCalls").get(), Metrics.gauge("render.stateChanges").get()));
+        lines.add(String.format("chunks %d (+%d)  %d KB  stalls %d",
+                Metrics.gauge("world.chunks.resident").get(), Metrics.gauge("world.chunks.prefetched").get(),
+                Metrics.gauge("world.chunks.bytes").get() >> 10, Metrics.gauge("world.chunks.stalls").get()));
+        lines.add(String.format("gc %d (%d ms)  heap %d MB",
+                Metrics.gauge("jvm.gc.count").get(), Metrics.gauge("jvm.gc.timeMs").get(),
+                Metrics.gauge("jvm.heap.usedBytes").get() >> 20));
+        lines.add(String.format("alloc %.1f MB/s", Metrics.gauge("jvm.alloc.bytesPerSec").get() / 1048576.0));
+    }
+}
@@ -0,0 +1,188 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owns the world's potions. Instances are recycled through a free list, collected or expired
+ * potions leave the live list straight away (swap-remove via their slot), and dropped potions
+ * despawn after game.pickups.lifetime seconds (default 20, 0 = never; level-placed potions
+ * never expire). A potion that has landed goes to sleep and skips physics until the resident
+ * platform list changes; collection only looks at potions the spatial index puts on the player.
+ */
+final class PickupManager {
+    static final int FALL_SPEED = 4;
+
+    private final long lifetimeTicks =
+            (long) Integer.getInteger("game.pickups.lifetime", 20) * GameLoop.TICKS_PER_SECOND;
+
+    private final SpatialHash<Object> index;
+    private final ArrayList<Potion> live = new ArrayList<>();
+    private final ArrayList<Potion> free = new ArrayList<>();
+    private final ArrayList<Potion> touched = new ArrayList<>();
+    private List<Platform> terrain;
+    private int awake;
+
+    private final GameEvents.PotionEvent event = new GameEvents.PotionEvent();
+    private static final Metrics.Gauge G_AWAKE = Metrics.gauge("world.potions.awake");
+    private static final Metrics.Gauge G_POOLED = Metrics.gauge("world.potions.pooled");
+
+    PickupManager(SpatialHash<Object> index) {
+        this.index = index;
+    }
+
+    /** Live potions; order changes when one is removed. */
+    List<Potion> live() {
+        return live;
+    }
+
+    int awake() {
+        return awake;
+    }
+
+    /** Places a potion; expiring ones despawn lifetime after tick. */
+    Potion spawn(double x, double y, Potion.Type type, long tick, boolean expires) {
+        Potion p = free.isEmpty() ? new Potion(x, y, type) : free.remove(free.size() - 1);
+        p.x = x;
+        p.y = p.prevY = y;
+        p.type = type;
+        p.collected = false;
+        p.asleep = false;
+        p.spawnChunk = -1;
+        p.expiresAt = expires && lifetimeTicks > 0 ? tick + lifetimeTicks : Long.MAX_VALUE;
+        p.slot = live.size();
+        live.add(p);
+        awake++;
+        reindex(p);
+        if (expires) event("drop", p);
+        return p;
+    }
+
+    /** Falls awake potions onto the platforms and despawns expired ones. */
+    void update(List<Platform> platforms, long tick) {
+        // platform เปลี่ยน (โหลด/ถอด chunk) -> ปลุกทุกขวดให้หาพื้นใหม่
+        if (platforms != terrain) {
+            terrain = platforms;
+            for (int i = 0; i < live.size(); i++) live.get(i).asleep = false;
+            awake = live.size();
+        }
+
+        for (int i = live.size() - 1; i >= 0; i--) {
+            Potion p = live.get(i);
+            if (tick >= p.expiresAt) {
+                event("despawn", p);
+                release(p);
+                continue;
+            }
+            if (p.asleep) continue;
+
+            p.prevY = p.y;
+            p.y += FALL_SPEED;
+            boolean landed = false;
+            for (int j = 0, m = platforms.size(); j < m; j++) {
+                Platform plat = platforms.get(j);
+                if (plat.overlaps(p.getBounds())) {
+                    p.y = plat.y - p.height;
+                    landed = true;
+                }
+            }
+            reindex(p);
+            // ยืนนิ่งบนพื้นแล้ว (ตกลงมาเท่าไรก็ถูกดันกลับที่เดิม) -> หลับ
+            if (landed && p.y == p.prevY) {
+                p.asleep = true;
+                awake--;
+            }
+        }
+        G_AWAKE.set(awake);
+        G_POOLED.set(free.size());
+    }
+
+    /** Potions touching the box; call release() on the ones that get collected. */
+    List<Potion> touching(Aabb box) {
+        touched.clear();
+        index.queryRect(box.x, box.y, box.width, box.height, Potion.class, touched);
+        return touched;
+    }
+
+    /** Marks a potion picked up and returns it to the pool. */
+    void collect(Potion p) {
+        p.collected = true;
+        event("pickup", p);
+        release(p);
+    }
+
+    /** Drops every potion whose x is in [left, right), e.g. when its chunk unloads. */
+    void removeRange(int left, int right) {
+        for (int i = live.size() - 1; i >= 0; i--) {
+            Potion p = live.get(i);
+            if (p.x >= left && p.x < right) release(p);
+        }
+    }
+
+    /** Returns every potion to the pool; the caller clears the index. */
+    void clear() {
+        free.addAll(live);
+        live.clear();
+        awake = 0;
+        terrain = null;
+    }
+
+    void save(ByteBuffer b) {
+        b.putInt(live.size());
+        for (int i = 0; i < live.size(); i++) {
+            Potion p = live.get(i);
+            b.putDouble(p.x).putDouble(p.y).putDouble(p.prevY).putLong(p.expiresAt);
+            b.put((byte) p.type.ordinal()).put((byte) (p.asleep ? 1 : 0));
+            b.putInt(p.spawnChunk).putInt(p.spawnRecord);
+        }
+    }
+
+    /** Replaces the live potions with the ones save() wrote (resting on platforms), reusing pooled instances. */
+    void load(ByteBuffer b, List<Platform> platforms) {
+        for (int i = 0; i < live.size(); i++) index.remove(live.get(i));
+        clear();
+        for (int n = b.getInt(); n > 0; n--) {
+            double x = b.getDouble(), y = b.getDouble(), prevY = b.getDouble();
+            long expiresAt = b.getLong();
+            Potion p = spawn(x, y, Potion.TYPES[b.get()], 0, false);
+            p.prevY = prevY;
+            p.expiresAt = expiresAt;
+            if (b.get() != 0) {
+                p.asleep = true;
+                awake--;
+            }
+            p.spawnChunk = b.getInt();
+            p.spawnRecord = b.getInt();
+        }
+        terrain = platforms;
+    }
+
+    private void release(Potion p) {
+        int slot = p.slot;
+        Potion last = live.remove(live.size() - 1);
+        if (last != p) {
+            live.set(slot, last);
+            last.slot = slot;
+        }
+        if (!p.asleep) awake--;
+        index.remove(p);
+        free.add(p);
+    }
+
+    private void reindex(Potion p) {
+        Aabb r = p.getBounds();
+        index.update(p, r.x, r.y, r.width, r.height);
+    }
+
+    private void event(String action, Potion p) {
+        if (!event.isEnabled()) return;
+        event.begin();
+        event.action = action;
+        event.type = p.type.name();
+        event.x = (int) p.x;
+        event.y = (int) p.y;
+        event.end();
+        event.commit();
+    }
+}
@@ -1,11 +1,12 @@
 package game;
 
-import java.awt.*;
-
 public class Platform {
     public int x, y, width, height;
     private boolean transparent;
     private float alpha;
+    // ชิ้นที่ LevelConverter ตัดตรงขอบ chunk -> ด้านนั้นต่อกับอีกชิ้น ไม่ต้องวาดเส้นขอบ
+    boolean cutLeft, cutRight;
+    private final Aabb bounds = new Aabb();
 
     // Constructor สำหรับ platform ปกติ (ทึบ)
     public Platform(int x, int y, int width, int height) {
@@ -22,28 +23,24 @@ public class Platform {
         this.alpha = alpha;
     }
 
-    public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
+    // คืนกล่องเดิมทุกครั้ง (ไม่ allocate) - fields เป็น public จึงเติมค่าใหม่ทุกครั้งที่เรียก
+    public Aabb getBounds() {
+        return bounds.set(x, y, width, height);
     }
 
-    public void draw(Graphics2D g) {
-        Composite old = g.getComposite();
-
-        // ถ้าเป็น platform โปร่ง -> ตั้งค่าความโปร่งใส
-        if (transparent) {
-            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-        }
+    public boolean overlaps(int ox, int oy, int ow, int oh) {
+        return bounds.set(x, y, width, height).intersects(ox, oy, ow, oh);
+    }
 
-        // วาดตัวสี่เหลี่ยม
-        g.setColor(new Color(60, 60, 80));
-        g.fillRect(x, y, width, height);
+    public boolean overlaps(Aabb box) {
+        return overlaps(box.x, box.y, box.width, box.height);
+    }
 
-        // วาดขอบ
-        g.setColor(new Color(100, 100, 130));
-        g.drawRect(x, y, width, height);
-        g.drawLine(x, y + 2, x + width, y + 2);
+    public boolean isTransparent() {
+        return transparent;
+    }
 
-        // คืนค่าความโปร่งใสเดิม
-        g.setComposite(old);
+    public float getAlpha() {
+        return alpha;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Static level geometry rasterised into fixed-width image chunks along x.
+ * Each frame blits only the chunks overlapping the camera. A chunk is re-rasterised only when
+ * the platforms inside it change: a new platform list is compared chunk by chunk against the
+ * old one, and in-place edits to a Platform can be reported with invalidate().
+ */
+public class PlatformChunkCache {
+    public static final int CHUNK_WIDTH = 512;
+
+    private static final Color FILL = new Color(60, 60, 80);
+    private static final Color EDGE = new Color(100, 100, 130);
+
+    private static final class Chunk {
+        final int index;
+        final List<Platform> platforms = new ArrayList<>();
+        long signature;
+        int y0, y1; // ช่วง y ที่มี platform จริง -> ภาพสูงเท่าที่จำเป็น
+        BufferedImage image;
+        boolean dirty = true;
+
+        Chunk(int index) {
+            this.index = index;
+        }
+    }
+
+    private Chunk[] chunks = new Chunk[0];
+    private int firstChunk;
+    private List<Platform> source;
+    private int sourceSize;
+    private long rasterised;
+
+    /** Blits the chunks covering [viewX, viewX + viewW); g is in world coordinates. */
+    public void draw(Graphics2D g, List<Platform> platforms, int viewX, int viewW) {
+        if (platforms != source || platforms.size() != sourceSize) rebuild(platforms);
+
+        int from = Math.max(Math.floorDiv(viewX, CHUNK_WIDTH) - firstChunk, 0);
+        int to = Math.min(Math.floorDiv(viewX + viewW - 1, CHUNK_WIDTH) - firstChunk, chunks.length - 1);
+        for (int i = from; i <= to; i++) {
+            Chunk c = chunks[i];
+            if (c == null || c.platforms.isEmpty()) continue;
+            if (c.dirty || c.image == null) rasterise(c, g.getDeviceConfiguration());
+            g.drawImage(c.image, c.index * CHUNK_WIDTH, c.y0, null);
+        }
+    }
+
+    /** Marks the chunks covering [x, x + width] for re-rasterising, e.g. after moving a platform. */
+    public void invalidate(int x, int width) {
+        int from = Math.max(Math.floorDiv(x, CHUNK_WIDTH) - firstChunk, 0);
+        int to = Math.min(Math.floorDiv(x + width, CHUNK_WIDTH) - firstChunk, chunks.length - 1);
+        for (int i = from; i <= to; i++) {
+            if (chunks[i] != null) chunks[i].dirty = true;
+        }
+        // platform อาจย้ายไป chunk อื่น -> จัดกลุ่มใหม่ตอนวาดครั้งถัดไป
+        source = null;
+    }
+
+    /** Number of chunk rasterisations so far (a steady game should stop increasing this). */
+    public long rasterised() {
+        return rasterised;
+    }
+
+    // จัด platform ลง chunk ใหม่ แล้วเก็บภาพเดิมไว้ถ้า signature ของ chunk นั้นไม่เปลี่ยน
+    private void rebuild(List<Platform> platforms) {
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (Platform p : platforms) {
+            if (invisible(p)) continue;
+            min = Math.min(min, Math.floorDiv(p.x, CHUNK_WIDTH));
+            max = Math.max(max, Math.floorDiv(p.x + p.width, CHUNK_WIDTH));
+        }
+
+        Chunk[] old = chunks;
+        int oldFirst = firstChunk;
+        if (min > max) {
+            chunks = new Chunk[0];
+            firstChunk = 0;
+        } else {
+            chunks = new Chunk[max - min + 1];
+            firstChunk = min;
+            for (Platform p : platforms) {
+                if (invisible(p)) continue;
+                int a = Math.floorDiv(p.x, CHUNK_WIDTH) - min;
+                int b = Math.floorDiv(p.x + p.width, CHUNK_WIDTH) - min;
+                for (int i = a; i <= b; i++) {
+                    if (chunks[i] == null) chunks[i] = new Chunk(min + i);
+                    chunks[i].platforms.add(p);
+                }
+            }
+        }
+
+        for (Chunk c : chunks) {
+            if (c == null) continue;
+            c.signature = signature(c.platforms);
+            int o = c.index - oldFirst;
+            Chunk prev = o >= 0 && o < old.length ? old[o] : null;
+            if (prev != null && prev.image != null && !prev.dirty && prev.signature == c.signature) {
+                c.image = prev.image;
+                c.y0 = prev.y0;
+                c.y1 = prev.y1;
+                c.dirty = false;
+            }
+        }
+        source = platforms;
+        sourceSize = platforms.size();
+    }
+
+    private void rasterise(Chunk c, GraphicsConfiguration gc) {
+        int y0 = Integer.MAX_VALUE, y1 = Integer.MIN_VALUE;
+        for (Platform p : c.platforms) {
+            y0 = Math.min(y0, p.y);
+            y1 = Math.max(y1, p.y + p.height + 1); // drawRect กินขอบขวา/ล่างอีก 1px
+        }
+        int w = CHUNK_WIDTH, h = Math.max(1, y1 - y0);
+        BufferedImage img = gc != null
+                ? gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g = img.createGraphics();
+        g.translate(-c.index * CHUNK_WIDTH, -y0);
+        for (Platform p : c.platforms) draw(g, p);
+        g.dispose();
+
+        if (c.image != null) c.image.flush();
+        c.image = img;
+        c.y0 = y0;
+        c.y1 = y1;
+        c.dirty = false;
+        rasterised++;
+    }
+
+    /** Draws one platform directly; used for rasterising chunks. */
+    static void draw(Graphics2D g, Platform p) {
+        Composite old = g.getComposite();
+
+        // ถ้าเป็น platform โปร่ง -> ตั้งค่าความโปร่งใส
+        if (p.isTransparent()) {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, p.getAlpha()));
+        }
+
+        // วาดตัวสี่เหลี่ยม
+        g.setColor(FILL);
+        g.fillRect(p.x, p.y, p.width, p.height);
+
+        // วาดขอบ (ชิ้นที่ถูกตัดตรงขอบ chunk: ไม่มีเส้นตั้งด้านที่ต่อกัน และเส้นนอนไม่ทับพิกเซลแรกของชิ้นถัดไป)
+        g.setColor(EDGE);
+        int right = p.x + p.width, end = p.cutRight ? right - 1 : right;
+        g.drawLine(p.x, p.y, end, p.y);
+        g.drawLine(p.x, p.y + p.height, end, p.y + p.height);
+        if (!p.cutLeft) g.drawLine(p.x, p.y, p.x, p.y + p.height);
+        if (!p.cutRight) g.drawLine(right, p.y, right, p.y + p.height);
+        g.drawLine(p.x, p.y + 2, end, p.y + 2);
+
+        // คืนค่าความโปร่งใสเดิม
+        g.setComposite(old);
+    }
+
+    // พื้นกับกำแพงขอบด่านโปร่งใส 100% -> ไม่ต้องอยู่ใน cache เลย
+    private static boolean invisible(Platform p) {
+        return p.isTransparent() && p.getAlpha() <= 0f;
+    }
+
+    private static long signature(List<Platform> platforms) {
+        long h = 1;
+        for (Platform p : platforms) {
+            h = h * 31 + p.x;
+            h = h * 31 + p.y;
+            h = h * 31 + p.width;
+            h = h * 31 + p.height;
+            h = h * 31 + (p.isTransparent() ? Float.floatToIntBits(p.getAlpha()) : 1);
+            h = h * 31 + (p.cutLeft ? 2 : 0) + (p.cutRight ? 4 : 0);
+        }
+        return h;
+    }
+}
@@ -1,13 +1,16 @@
 package game;
 
-import javax.swing.*;
-import java.awt.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 public class Player {
+    static final Archetype TYPE = Archetype.get("player");
+    static final AnimationClip[] CLIPS = TYPE.clips(State.class);
+
     // position & physics
     public double x, y;
+    public double prevX, prevY; // ตำแหน่งต้น tick สำหรับ interpolation ตอนวาด
     public double dx, dy;
     public int width, height;
 
@@ -21,11 +24,13 @@ public class Player {
     public boolean isAttacking = false;
     public boolean isHit = false;
     public boolean canDealDamage = false;
-    public int health = 100;
-    public int damage = 25;
+    public int health = TYPE.health;
+    public int damage = TYPE.damage;
+    public int cleaveTargets = Math.max(1, Integer.getInteger("game.cleave", 1)); // ศัตรูสูงสุดต่อการฟันหนึ่งครั้ง
     public int hitTimer = 0;
     public double knockbackX = 0;
     public int attackCooldown = 0;
+    public GameRng rng = new GameRng(0); // GameWorld ใส่ RNG ของระบบ combat ให้ (เลือกท่าฟัน)
 
     // jump buffering
     private boolean jumpQueued = false;
@@ -33,24 +38,12 @@ public class Player {
     private int jumpBufferTimer = 0;
 
     // sprite/animation
-    private Image playerIdle, playerRun, playerDash, playerAttack, playerAttack2;
-    private Image currentSheet;
-
-    private int frameWidth, frameHeight;
-    private int frameCount;
-    private int currentFrame = 0;
+    int currentFrame = 0;
     private int animTimer = 0;
-    private int animSpeed = 6;
 
-    private static final int IDLE_FRAMES = 10;
-    private static final int RUN_FRAMES = 10;
-    private static final int DASH_FRAMES = 2;
-    private static final int ATTACK_FRAMES = 6;
-    private static final int ATTACK2_FRAMES = 6;
-    private static final int SCALE = 2;
-
-    private enum State { IDLE, RUN, DASH, ATTACK, ATTACK2 }
-    private State state = State.IDLE;
+    enum State { IDLE, RUN, DASH, ATTACK, ATTACK2 }
+    State state = State.IDLE;
+    private AnimationClip clip = CLIPS[State.IDLE.ordinal()];
 
     // dash system
     private boolean isDashing = false;
@@ -59,7 +52,7 @@ public class Player {
     private double dashSpeed = 20;
 
     // trail effect
-    private static class Trail {
+    static class Trail {
         double x, y;
         int life;
         boolean facingRight;
@@ -71,7 +64,11 @@ public class Player {
             this.facingRight = facingRight;
         }
     }
-    private final List<Trail> trails = new ArrayList<>();
+    final List<Trail> trails = new ArrayList<>();
+    private final ArrayList<Trail> freeTrails = new ArrayList<>(); // trail ที่หมดอายุแล้ว เก็บไว้ใช้ซ้ำ
+
+    private final Aabb bounds = new Aabb();
+    private final Aabb attackBox = new Aabb();
 
     // potion buffs
     public boolean speedBuff = false;
@@ -79,56 +76,54 @@ public class Player {
     public int buffTimer = 0;
 
     public Player(int startX, int startY) {
-        this.x = startX;
-        this.y = startY;
-        this.frameWidth = 120;
-        this.frameHeight = 80;
-        this.width = frameWidth * SCALE;
-        this.height = frameHeight * SCALE;
-
-        playerIdle = loadImage("/assets/player_idle.png");
-        playerRun = loadImage("/assets/player_run.png");
-        playerDash = loadImage("/assets/player_dash.png");
-        playerAttack = loadImage("/assets/player_attack.png");
-        playerAttack2 = loadImage("/assets/player_attack2.png");
-
-        currentSheet = playerIdle;
-        frameCount = IDLE_FRAMES;
+        this.width = TYPE.width;
+        this.height = TYPE.height;
+        reset(startX, startY);
     }
 
-    private Image loadImage(String path) {
-        try {
-            java.net.URL url = getClass().getResource(path);
-            if (url != null) return new ImageIcon(url).getImage();
-        } catch (Exception ignored) {}
-        try {
-            return new ImageIcon(path.replaceFirst("/", "")).getImage();
-        } catch (Exception e) {
-            System.err.println("Failed to load image: " + path);
-            return null;
-        }
+    /** Back to a fresh spawn at (startX, startY), keeping this object and its trail pool. */
+    void reset(int startX, int startY) {
+        x = prevX = startX;
+        y = prevY = startY;
+        dx = dy = knockbackX = 0;
+        moveLeft = moveRight = false;
+        facingRight = true;
+        isGrounded = hasDealtDamage = isAttacking = isHit = canDealDamage = false;
+        health = TYPE.health;
+        hitTimer = attackCooldown = 0;
+        jumpQueued = false;
+        jumpBufferTimer = 0;
+        state = State.IDLE;
+        clip = CLIPS[State.IDLE.ordinal()];
+        currentFrame = animTimer = 0;
+        isDashing = false;
+        dashTimer = dashCooldown = 0;
+        freeTrails.addAll(trails);
+        trails.clear();
+        speedBuff = powerBuff = false;
+        buffTimer = 0;
     }
 
     // Hitbox
-    public Rectangle getBounds() {
+    public Aabb getBounds() {
         int hitW = (int)(width * 0.25);
         int hitH = (int)(height * 0.6);
         int hitX = (int)x + (width - hitW) / 2;
         int hitY = (int)y + (int)(height * 0.4);
-        return new Rectangle(hitX, hitY, hitW, hitH);
+        return bounds.set(hitX, hitY, hitW, hitH);
     }
 
-    public Rectangle getBoundsWorld() {
+    public Aabb getBoundsWorld() {
         return getBounds();
     }
 
     // Attack Box
-    public Rectangle getAttackBox() {
+    public Aabb getAttackBox() {
         int w = (int)(width * 0.5);
         int h = (int)(height * 0.7);
         int ax = facingRight ? (int)(x + width * 0.4) : (int)(x + width * 0.4 - w);
         int ay = (int)(y + height * 0.35);
-        return new Rectangle(ax, ay, w, h);
+        return attackBox.set(ax, ay, w, h);
     }
 
     // Attack
@@ -138,11 +133,10 @@ public class Player {
             canDealDamage = false;
             hasDealtDamage = false;
             attackCooldown = 10;
-            if (Math.random() < 0.5) setState(State.ATTACK);
+            if (rng.nextBoolean()) setState(State.ATTACK);
             else setState(State.ATTACK2);
             currentFrame = 0;
             animTimer = 0;
-            animSpeed = 4;
         }
     }
 
@@ -156,15 +150,16 @@ public class Player {
             dx = facingRight ? dashSpeed : -dashSpeed;
             setState(State.DASH);
             // สร้าง trail ชุดแรก
+            for (int i = 0; i < trails.size(); i++) freeTrails.add(trails.get(i));
             trails.clear();
-            trails.add(new Trail(x, y, facingRight));
+            addTrail();
         }
     }
 
     // Jump
     public void jump() {
         if (isGrounded) {
-            dy = -18;
+            dy = TYPE.jumpPower;
             isGrounded = false;
             jumpQueued = false;
         } else {
@@ -173,23 +168,28 @@ public class Player {
         }
     }
 
+    private void addTrail() {
+        Trail t = freeTrails.isEmpty() ? new Trail(x, y, facingRight) : freeTrails.remove(freeTrails.size() - 1);
+        t.x = x;
+        t.y = y;
+        t.life = 10;
+        t.facingRight = facingRight;
+        trails.add(t);
+    }
+
     private void setState(State s) {
         if (state == s) return;
         state = s;
-        switch (s) {
-            case IDLE -> { currentSheet = playerIdle; frameCount = IDLE_FRAMES; animSpeed = 8; }
-            case RUN -> { currentSheet = playerRun; frameCount = RUN_FRAMES; animSpeed = 6; }
-            case DASH -> { currentSheet = playerDash; frameCount = DASH_FRAMES; animSpeed = 4; }
-            case ATTACK -> { currentSheet = playerAttack; frameCount = ATTACK_FRAMES; animSpeed = 4; }
-            case ATTACK2 -> { currentSheet = playerAttack2; frameCount = ATTACK2_FRAMES; animSpeed = 4; }
-        }
+        clip = CLIPS[s.ordinal()];
         currentFrame = 0;
         animTimer = 0;
     }
 
     public void update(java.util.List<Platform> platforms) {
-        double baseSpeed = 5.0;
-        double speed = speedBuff ? baseSpeed * 1.5 : baseSpeed;
+        prevX = x;
+        prevY = y;
+
+        double speed = speedBuff ? TYPE.moveSpeed * 1.5 : TYPE.moveSpeed;
 
         // Movement
         if (!isDashing) {
@@ -221,7 +221,7 @@ public class Player {
 
             // เพิ่ม trail ทุก 2 เฟรม
             if (dashTimer % 2 == 0) {
-                trails.add(new Trail(x, y, facingRight));
+                addTrail();
             }
 
             if (dashTimer <= 0) {
@@ -236,9 +236,9 @@ public class Player {
 
         // Collision
         isGrounded = false;
-        for (Platform p : platforms) {
-            Rectangle playerRect = getBounds();
-            Rectangle platRect = p.getBounds();
+        for (int i = 0, n = platforms.size(); i < n; i++) {
+            Aabb playerRect = getBounds();
+            Aabb platRect = platforms.get(i).getBounds();
 
             if (playerRect.intersects(platRect)) {
                 double overlapTop = (y + height) - platRect.y;
@@ -270,28 +270,31 @@ public class Player {
         }
 
         // Trail fade
-        trails.removeIf(t -> --t.life <= 0);
+        for (int i = trails.size() - 1; i >= 0; i--) {
+            Trail t = trails.get(i);
+            if (--t.life <= 0) freeTrails.add(trails.remove(i));
+        }
 
         // Animation
         animTimer++;
 // Animation
         animTimer++;
-        if (animTimer >= animSpeed) {
+        if (animTimer >= clip.ticksPerFrame) {
             animTimer = 0;
             currentFrame++;
 
             // ✅ ถ้าเป็นการโจมตี ให้เปิด/ปิด damage window
             if (isAttacking) {
-                if (currentFrame == 1 && !canDealDamage) {
+                if (clip.opensDamage(currentFrame) && !canDealDamage) {
                     canDealDamage = true;
                     hasDealtDamage = false;
-                } else if (currentFrame > 1 && canDealDamage) {
+                } else if (clip.closesDamage(currentFrame) && canDealDamage) {
                     canDealDamage = false;
                 }
             }
 
             // ✅ ถ้า animation จบ
-            if (currentFrame >= frameCount) {
+            if (currentFrame >= clip.frames) {
                 currentFrame = 0;
 
                 // ถ้าเป็นการโจมตี → กลับสู่ Idle
@@ -325,42 +328,98 @@ public class Player {
         }
     }
 
-    // Draw player
-    public void draw(Graphics2D g) {
-        // draw dash trails
-        for (Trail t : trails) {
-            float alpha = t.life / 10f;
-            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha * 0.4f));
-            g.setColor(new Color(255, 240, 100));
-            int offset = t.facingRight ? 20 : -20;
-            g.fillRoundRect((int)t.x + offset, (int)t.y + height / 3, width / 2, 10, 10, 10);
+    // ============================ Checkpoint ============================
+    void save(ByteBuffer b) {
+        b.putDouble(x).putDouble(y).putDouble(prevX).putDouble(prevY)
+         .putDouble(dx).putDouble(dy).putDouble(knockbackX);
+        b.putInt(health).putInt(hitTimer).putInt(attackCooldown).putInt(jumpBufferTimer)
+         .putInt(dashTimer).putInt(dashCooldown).putInt(buffTimer);
+        b.putShort((short) currentFrame).putShort((short) animTimer);
+        b.put((byte) state.ordinal());
+        b.putShort((short) ((moveLeft ? 1 : 0) | (moveRight ? 2 : 0) | (facingRight ? 4 : 0)
+                | (isGrounded ? 8 : 0) | (hasDealtDamage ? 16 : 0) | (isAttacking ? 32 : 0)
+                | (isHit ? 64 : 0) | (canDealDamage ? 128 : 0) | (jumpQueued ? 256 : 0)
+                | (isDashing ? 512 : 0) | (speedBuff ? 1024 : 0) | (powerBuff ? 2048 : 0)));
+        // trail มีได้ไม่เกิน ~10 อัน (dash 14 tick เพิ่มทุก 2 tick)
+        b.put((byte) trails.size());
+        for (int i = 0; i < trails.size(); i++) {
+            Trail t = trails.get(i);
+            b.putDouble(t.x).putDouble(t.y).put((byte) t.life).put((byte) (t.facingRight ? 1 : 0));
         }
+    }
 
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1f));
-
-        // draw player sprite
-        int sx = currentFrame * frameWidth;
-        int sy = 0;
-        int sw = frameWidth;
-        int sh = frameHeight;
-
-        if (facingRight)
-            g.drawImage(currentSheet, (int)x, (int)y, (int)x + width, (int)y + height,
-                    sx, sy, sx + sw, sy + sh, null);
-        else
-            g.drawImage(currentSheet, (int)x + width, (int)y, (int)x, (int)y + height,
-                    sx, sy, sx + sw, sy + sh, null);
-
-//        // debug hitboxes
-//        g.setColor(new Color(0, 255, 0, 150));
-//        Rectangle b = getBounds();
-//        g.drawRect(b.x, b.y, b.width, b.height);
-//
-//        if (isAttacking) {
-//            g.setColor(canDealDamage ? new Color(255, 0, 0, 200)
-//                    : new Color(255, 0, 0, 80));
-//            Rectangle atk = getAttackBox();
-//            g.drawRect(atk.x, atk.y, atk.width, atk.height);
-//        }
+    void load(ByteBuffer b) {
+        x = b.getDouble();
+        y = b.getDouble();
+        prevX = b.getDouble();
+        prevY = b.getDouble();
+        dx = b.getDouble();
+        dy = b.getDouble();
+        knockbackX = b.getDouble();
+        health = b.getInt();
+        hitTimer = b.getInt();
+        attackCooldown = b.getInt();
+        jumpBufferTimer = b.getInt();
+        dashTimer = b.getInt();
+        dashCooldown = b.getInt();
+        buffTimer = b.getInt();
+        currentFrame = b.getShort();
+        animTimer = b.getShort();
+        state = State.values()[b.get()];
+        clip = CLIPS[state.ordinal()];
+        int flags = b.getShort();
+        moveLeft = (flags & 1) != 0;
+        moveRight = (flags & 2) != 0;
+        facingRight = (flags & 4) != 0;
+        isGrounded = (flags & 8) != 0;
+        hasDealtDamage = (flags & 16) != 0;
+        isAttacking = (flags & 32) != 0;
+        isHit = (flags & 64) != 0;
+        canDealDamage = (flags & 128) != 0;
+        jumpQueued = (flags & 256) != 0;
+        isDashing = (flags & 512) != 0;
+        speedBuff = (flags & 1024) != 0;
+        powerBuff = (flags & 2048) != 0;
+
+        freeTrails.addAll(trails);
+        trails.clear();
+        for (int n = b.get(); n > 0; n--) {
+            double tx = b.getDouble(), ty = b.getDouble();
+            int life = b.get();
+            boolean right = b.get() != 0;
+            addTrail();
+            Trail t = trails.get(trails.size() - 1);
+            t.x = tx;
+            t.y = ty;
+            t.life = life;
+            t.facingRight = right;
+        }
+    }
+
+    // Copy draw/HUD state for the render snapshot; trail objects are reused
+    void copyFrom(Player o) {
+        x = o.x;
+        y = o.y;
+        prevX = o.prevX;
+        prevY = o.prevY;
+        facingRight = o.facingRight;
+        health = o.health;
+        speedBuff = o.speedBuff;
+        powerBuff = o.powerBuff;
+        buffTimer = o.buffTimer;
+        state = o.state;
+        clip = o.clip;
+        currentFrame = o.currentFrame;
+
+        while (trails.size() > o.trails.size()) trails.remove(trails.size() - 1);
+        for (int i = 0; i < o.trails.size(); i++) {
+            Trail src = o.trails.get(i);
+            if (i == trails.size()) trails.add(new Trail(src.x, src.y, src.facingRight));
+            Trail t = trails.get(i);
+            t.x = src.x;
+            t.y = src.y;
+            t.life = src.life;
+            t.facingRight = src.facingRight;
+        }
     }
 }
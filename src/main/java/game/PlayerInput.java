@@ -0,0 +1,28 @@
+package game;
+
+/**
+ * One tick of player input as plain data, so the world can be driven by the keyboard, a bot or a replay.
+ * Held keys stay set until released; presses are consumed by the tick that sees them.
+ */
+public class PlayerInput {
+    // ปุ่มที่กดค้าง
+    public boolean left, right;
+    // กดใน tick นี้ (ใช้ครั้งเดียว)
+    public boolean jump, attack, dash, restart;
+
+    public void clearPresses() {
+        jump = false;
+        attack = false;
+        dash = false;
+        restart = false;
+    }
+
+    public void set(PlayerInput o) {
+        left = o.left;
+        right = o.right;
+        jump = o.jump;
+        attack = o.attack;
+        dash = o.dash;
+        restart = o.restart;
+    }
+}
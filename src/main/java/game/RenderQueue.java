@@ -0,0 +1,159 @@
+package game;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Draw commands for the world pass. Entities submit sprites (and the odd solid rect) with a
+ * layer and an opacity; flush() draws the layers bottom to top. Inside a batched layer
+ * (potions, sparks, dash trails: small sprites whose stacking nobody can see) commands are
+ * sorted by opacity, then image, so consecutive blits share the same composite and source
+ * image and Java2D only revalidates its pipeline when one of them actually changes. Every
+ * other layer draws in submission order, so overlapping sprites stack the way the renderer
+ * submitted them; entities that need several sprites drawn in a fixed order (the boss aura,
+ * body and ring) use separate layers.
+ *
+ * Commands are stored in parallel arrays that grow once and are reused, and the sort runs on
+ * packed long keys, so a frame with a thousand sprites allocates nothing. Draw calls and state
+ * changes of the last flush are published as render.drawCalls / render.stateChanges.
+ */
+public final class RenderQueue {
+    // layer ตามลำดับวาด (ล่าง -> บน)
+    public static final int LAYER_POTIONS = 0;
+    public static final int LAYER_PARTICLES = 1;
+    public static final int LAYER_BOSS_AURA = 2;
+    public static final int LAYER_BOSS = 3;
+    public static final int LAYER_BOSS_RING = 4;
+    public static final int LAYER_ENEMIES = 5;
+    public static final int LAYER_TRAILS = 6;
+    public static final int LAYER_PLAYER = 7;
+
+    // layer ที่จัดเรียงตาม alpha/ภาพได้ (ลำดับซ้อนกันมองไม่ออก); layer อื่นวาดตามลำดับที่ส่ง
+    private static final int BATCHED = 1 << LAYER_POTIONS | 1 << LAYER_PARTICLES | 1 << LAYER_TRAILS;
+
+    // key: 0 | layer(4, บิต 59-62) | alpha(8) | image(27) | ลำดับที่ส่ง(24) -> บิต 63 ว่างเสมอ เรียง long ได้ตรงๆ
+    // layer จึงมีได้ไม่เกิน 16 (ตอนนี้ 0..7)
+    // layer ที่ไม่ batch ใส่ alpha/image เป็น 0 -> เรียงตามลำดับที่ส่งอย่างเดียว
+    private static final int INDEX_BITS = 24;
+    private static final int IMAGE_BITS = 27;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final int MAX_COMMANDS = 1 << INDEX_BITS;
+
+    private static final Metrics.Gauge G_DRAWS = Metrics.gauge("render.drawCalls");
+    private static final Metrics.Gauge G_STATE = Metrics.gauge("render.stateChanges");
+
+    private Image[] images = new Image[256];
+    private Color[] colors = new Color[256];
+    private int[] x = new int[256], y = new int[256], w = new int[256], h = new int[256];
+    private short[] alpha = new short[256];
+    private long[] keys = new long[256];
+    private int count;
+
+    private final AlphaComposite[] composites = new AlphaComposite[256];
+
+    /** Image drawn 1:1 at (x, y). */
+    public void sprite(int layer, Image img, int x, int y) {
+        add(layer, img, null, x, y, -1, -1, 255);
+    }
+
+    /** Image drawn 1:1 at (x, y) with opacity 0..1. */
+    public void sprite(int layer, Image img, int x, int y, float opacity) {
+        int a = Math.round(Math.max(0f, Math.min(1f, opacity)) * 255);
+        if (a > 0) add(layer, img, null, x, y, -1, -1, a);
+    }
+
+    /** Image scaled into the rectangle (x, y, w, h). */
+    public void sprite(int layer, Image img, int x, int y, int w, int h) {
+        add(layer, img, null, x, y, w, h, 255);
+    }
+
+    /** Solid rectangle, for entities whose sprites failed to load. */
+    public void fill(int layer, Color color, int x, int y, int w, int h) {
+        add(layer, null, color, x, y, w, h, 255);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private void add(int layer, Image img, Color color, int x, int y, int w, int h, int a) {
+        if (count == MAX_COMMANDS) return;
+        if (count == keys.length) grow();
+        int i = count++;
+        images[i] = img;
+        colors[i] = color;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.w[i] = w;
+        this.h[i] = h;
+        alpha[i] = (short) a;
+        long key = ((long) layer << (INDEX_BITS + IMAGE_BITS + 8)) | i;
+        if ((BATCHED >> layer & 1) != 0) {
+            long image = img == null ? 0 : System.identityHashCode(img) & ((1L << IMAGE_BITS) - 1);
+            key |= ((long) (255 - a) << (INDEX_BITS + IMAGE_BITS)) | (image << INDEX_BITS);
+        }
+        keys[i] = key;
+    }
+
+    private void grow() {
+        int n = keys.length * 2;
+        images = Arrays.copyOf(images, n);
+        colors = Arrays.copyOf(colors, n);
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        w = Arrays.copyOf(w, n);
+        h = Arrays.copyOf(h, n);
+        alpha = Arrays.copyOf(alpha, n);
+        keys = Arrays.copyOf(keys, n);
+    }
+
+    /** Draws everything submitted since the last flush and empties the queue. */
+    public void flush(Graphics2D g) {
+        Arrays.sort(keys, 0, count);
+        Composite base = g.getComposite();
+        int currentAlpha = 255;
+        Image currentImage = null;
+        Color currentColor = null;
+        int stateChanges = 0;
+
+        for (int k = 0; k < count; k++) {
+            int i = (int) (keys[k] & INDEX_MASK);
+            int a = alpha[i];
+            if (a != currentAlpha) {
+                g.setComposite(a == 255 ? base : composite(a));
+                currentAlpha = a;
+                stateChanges++;
+            }
+            Image img = images[i];
+            if (img != null) {
+                if (img != currentImage) {
+                    currentImage = img;
+                    stateChanges++;
+                }
+                if (w[i] < 0) g.drawImage(img, x[i], y[i], null);
+                else g.drawImage(img, x[i], y[i], w[i], h[i], null);
+            } else {
+                if (colors[i] != currentColor) {
+                    currentColor = colors[i];
+                    g.setColor(currentColor);
+                    stateChanges++;
+                }
+                g.fillRect(x[i], y[i], w[i], h[i]);
+            }
+            // ไม่ถือ reference ข้ามเฟรม
+            images[i] = null;
+            colors[i] = null;
+        }
+        if (currentAlpha != 255) g.setComposite(base);
+
+        G_DRAWS.set(count);
+        G_STATE.set(stateChanges);
+        count = 0;
+    }
+
+    private AlphaComposite composite(int a) {
+        AlphaComposite c = composites[a];
+        if (c == null) composites[a] = c = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, a / 255f);
+        return c;
+    }
+}
@@ -0,0 +1,123 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copy of everything paintComponent needs from one simulation tick.
+ * Written only by the game-loop thread before it is published, read only by the EDT afterwards.
+ * Entity copies are pooled per snapshot, so capturing a tick does not allocate once the pools are warm.
+ */
+public class RenderSnapshot {
+    public boolean ready;
+    public long tick;
+    public long publishedNanos;
+    public long inputNanos; // System.nanoTime() ของ key แรกใน tick ล่าสุดที่มี input (0 = ยังไม่มี)
+
+    public int score;
+    public boolean gameOver;
+    public boolean gameWon;
+    public int cameraX, prevCameraX;
+
+    public List<Platform> platforms = List.of();
+    public Player player;
+    public Boss boss; // null ถ้ายังไม่มี boss ใน tick นี้
+    public final ArrayList<Enemy> enemies = new ArrayList<>();
+    public final ArrayList<Potion> potions = new ArrayList<>();
+    public ParticleSystem particles;
+
+    private Player playerCopy;
+    private Boss bossCopy;
+    private final ArrayList<Enemy> enemyPool = new ArrayList<>();
+    private final ArrayList<Potion> potionPool = new ArrayList<>();
+
+    /** Extra room around the camera: sprite overhang past the indexed boxes, glow effects, interpolation. */
+    static final int CULL_MARGIN = 128;
+
+    private final ArrayList<Enemy> visibleEnemies = new ArrayList<>();
+    private final ArrayList<Potion> visiblePotions = new ArrayList<>();
+    private static final Metrics.Gauge G_DRAWN = Metrics.gauge("cull.drawn");
+    private static final Metrics.Gauge G_CULLED = Metrics.gauge("cull.culled");
+
+    /**
+     * Captures one tick of the world, keeping only what the camera can see: the view of both the
+     * previous and current camera position (interpolation draws in between), plus CULL_MARGIN.
+     */
+    public void capture(GameWorld world) {
+        tick = world.getTick();
+        score = world.getScore();
+        gameOver = world.isGameOver();
+        gameWon = world.isGameWon();
+        cameraX = world.getCameraX();
+        prevCameraX = world.getPrevCameraX();
+        platforms = world.getPlatforms(); // วาดผ่าน PlatformChunkCache ซึ่งเลือกเฉพาะ chunk ในจอเอง
+        capturePlayer(world.getPlayer());
+
+        int x0 = Math.min(cameraX, prevCameraX) - CULL_MARGIN;
+        int x1 = Math.max(cameraX, prevCameraX) + GameWorld.WIDTH + CULL_MARGIN;
+        int y0 = -CULL_MARGIN;
+        int y1 = GameWorld.HEIGHT + CULL_MARGIN;
+
+        visibleEnemies.clear();
+        visiblePotions.clear();
+        world.queryVisible(x0, y0, x1 - x0, y1 - y0, visibleEnemies, visiblePotions);
+        captureEnemies(visibleEnemies);
+        capturePotions(visiblePotions);
+
+        Boss b = world.getBoss();
+        boolean bossVisible = b != null && b.x + b.width > x0 && b.x < x1;
+        captureBoss(bossVisible ? b : null);
+
+        ParticleSystem ps = world.getParticles();
+        if (particles == null || particles.capacity() != ps.capacity()) {
+            particles = new ParticleSystem(ps.capacity(), ParticleSystem.OverflowPolicy.DROP);
+        }
+        int sparks = ps.copyVisibleTo(particles, x0, x1);
+
+        int drawn = enemies.size() + potions.size() + (bossVisible ? 1 : 0) + sparks;
+        int total = world.getEnemies().size() + world.getPotions().size() + (b != null ? 1 : 0) + ps.size();
+        G_DRAWN.set(drawn);
+        G_CULLED.set(total - drawn);
+    }
+
+    public void capturePlayer(Player src) {
+        if (playerCopy == null) playerCopy = new Player(0, 0);
+        playerCopy.copyFrom(src);
+        player = playerCopy;
+    }
+
+    public void captureBoss(Boss src) {
+        if (src == null) {
+            boss = null;
+            return;
+        }
+        if (bossCopy == null) bossCopy = new Boss(0, 0);
+        bossCopy.copyFrom(src);
+        boss = bossCopy;
+    }
+
+    public void captureEnemies(List<Enemy> src) {
+        enemies.clear();
+        for (int i = 0; i < src.size(); i++) {
+            if (i == enemyPool.size()) enemyPool.add(new Enemy(0, 0));
+            Enemy copy = enemyPool.get(i);
+            copy.copyFrom(src.get(i));
+            enemies.add(copy);
+        }
+    }
+
+    public void capturePotions(List<Potion> src) {
+        potions.clear();
+        for (int i = 0; i < src.size(); i++) {
+            Potion p = src.get(i);
+            if (i == potionPool.size()) potionPool.add(new Potion(0, 0, p.type));
+            Potion copy = potionPool.get(i);
+            copy.copyFrom(p);
+            potions.add(copy);
+        }
+    }
+
+    public int interpolatedCameraX(double alpha) {
+        return (int) Math.round(prevCameraX + (cameraX - prevCameraX) * alpha);
+    }
+}
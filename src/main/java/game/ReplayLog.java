@@ -0,0 +1,221 @@
+package game;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Binary input log of a session, enough to replay it tick for tick: the world seed, the
+ * system properties that change the rules, then every tick's PlayerInput run-length encoded,
+ * with a GameWorld.stateHash() checkpoint every HASH_INTERVAL ticks to catch divergence.
+ *
+ * <pre>
+ *   header   MAGIC, VERSION(short), reserved(short), seed(long), properties(UTF "k=v\n"...)
+ *   entries  mask(byte 0..63) run(varint)      same input for run ticks
+ *            HASH(byte) tick(varint) hash(long) state hash after that many ticks
+ * </pre>
+ * Ten minutes of play comes to roughly 15 KB, about half of it hash checkpoints.
+ */
+public final class ReplayLog {
+    public static final int MAGIC = 0x50524B53; // "SKRP"
+    public static final short VERSION = 4;
+    public static final int HASH_INTERVAL = 60;
+
+    private static final int HASH = 0x80;
+
+    // property ที่มีผลกับกติกา -> ต้องตั้งค่าเดียวกันตอน replay
+    private static final String[] SIM_PROPERTIES = {
+            "game.cleave", "game.particles", "game.level",
+            "game.world.chunks", "game.world.ahead", "game.world.behind", "game.world.budget",
+            "game.horde", "game.horde.max", "game.horde.start", "game.horde.ramp",
+            "game.pickups.lifetime",
+    };
+
+    private ReplayLog() {}
+
+    static int mask(PlayerInput in) {
+        return (in.left ? 1 : 0) | (in.right ? 2 : 0) | (in.jump ? 4 : 0)
+                | (in.attack ? 8 : 0) | (in.dash ? 16 : 0) | (in.restart ? 32 : 0);
+    }
+
+    static void unmask(int m, PlayerInput in) {
+        in.left = (m & 1) != 0;
+        in.right = (m & 2) != 0;
+        in.jump = (m & 4) != 0;
+        in.attack = (m & 8) != 0;
+        in.dash = (m & 16) != 0;
+        in.restart = (m & 32) != 0;
+    }
+
+    /** Starts recording a world that has not been stepped yet. */
+    public static Recorder record(Path path, GameWorld world) throws IOException {
+        if (world.getTick() != 0) throw new IllegalStateException("Recording must start at tick 0");
+        return new Recorder(new BufferedOutputStream(Files.newOutputStream(path)), world.getSeed());
+    }
+
+    /** Reads a whole log into memory. */
+    public static Playback read(Path path) throws IOException {
+        return new Playback(Files.readAllBytes(path), path);
+    }
+
+    // ============================ Recording ============================
+    public static final class Recorder implements Closeable {
+        private final DataOutputStream out;
+        private int mask = -1;
+        private int run;
+        private boolean failed;
+
+        private Recorder(OutputStream os, long seed) throws IOException {
+            out = new DataOutputStream(os);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeLong(seed);
+            StringBuilder props = new StringBuilder();
+            for (String key : SIM_PROPERTIES) {
+                String value = System.getProperty(key);
+                if (value != null) props.append(key).append('=').append(value).append('\n');
+            }
+            out.writeUTF(props.toString());
+        }
+
+        /** Logs the input of the tick just stepped; call after world.step(in), before clearPresses(). */
+        public synchronized void record(PlayerInput in, GameWorld world) {
+            if (failed) return;
+            try {
+                int m = mask(in);
+                if (m != mask && run > 0) flushRun();
+                mask = m;
+                run++;
+                long tick = world.getTick();
+                if (tick % HASH_INTERVAL == 0) {
+                    flushRun();
+                    out.writeByte(HASH);
+                    writeVarLong(out, tick);
+                    out.writeLong(world.stateHash());
+                }
+            } catch (IOException e) {
+                failed = true;
+                System.err.println("❌ Replay recording stopped: " + e.getMessage());
+            }
+        }
+
+        private void flushRun() throws IOException {
+            if (run == 0) return;
+            out.writeByte(mask);
+            writeVarLong(out, run);
+            run = 0;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (!failed) flushRun();
+            out.close();
+        }
+    }
+
+    // ============================ Playback ============================
+    public static final class Playback {
+        private final long seed;
+        private final String properties;
+        private byte[] inputs = new byte[1024];
+        private int ticks;
+        private long[] hashTicks = new long[64];
+        private long[] hashes = new long[64];
+        private int hashCount;
+        private int nextHash;
+
+        private Playback(byte[] data, Path path) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (data.length < 16 || in.readInt() != MAGIC) throw new IOException(path + " is not a replay log");
+            short version = in.readShort();
+            if (version != VERSION) throw new IOException(path + ": replay version " + version + ", expected " + VERSION);
+            in.readShort();
+            seed = in.readLong();
+            properties = in.readUTF();
+
+            // ไฟล์อาจถูกตัดท้าย (เกมปิดกลางคัน) -> เล่นเท่าที่อ่านได้
+            try {
+                int b;
+                while ((b = in.read()) >= 0) {
+                    if (b == HASH) {
+                        long tick = readVarLong(in);
+                        long hash = in.readLong();
+                        if (hashCount == hashes.length) {
+                            hashTicks = Arrays.copyOf(hashTicks, hashCount * 2);
+                            hashes = Arrays.copyOf(hashes, hashCount * 2);
+                        }
+                        hashTicks[hashCount] = tick;
+                        hashes[hashCount++] = hash;
+                    } else {
+                        long run = readVarLong(in);
+                        if (ticks + run > Integer.MAX_VALUE - 8) throw new IOException(path + ": replay too long");
+                        if (ticks + run > inputs.length) {
+                            inputs = Arrays.copyOf(inputs, (int) Math.max(inputs.length * 2L, ticks + run));
+                        }
+                        Arrays.fill(inputs, ticks, ticks + (int) run, (byte) b);
+                        ticks += (int) run;
+                    }
+                }
+            } catch (EOFException truncated) {
+                System.err.println("⚠️ " + path + " is truncated, replaying " + ticks + " ticks");
+            }
+        }
+
+        public long seed() { return seed; }
+        public int ticks() { return ticks; }
+        public int hashCount() { return hashCount; }
+
+        /** Sets the recorded rule properties, so a GameWorld created afterwards matches the session. */
+        public void applyProperties() {
+            for (String line : properties.split("\n")) {
+                int eq = line.indexOf('=');
+                if (eq > 0) System.setProperty(line.substring(0, eq), line.substring(eq + 1));
+            }
+        }
+
+        /** Fills in the input for tick t (0-based). */
+        public void input(int t, PlayerInput into) {
+            unmask(inputs[t], into);
+        }
+
+        /**
+         * Compares against the checkpoint for the world's current tick, if one was recorded.
+         * Call after every step; returns false on the first mismatch.
+         */
+        public boolean verify(GameWorld world) {
+            long tick = world.getTick();
+            while (nextHash < hashCount && hashTicks[nextHash] < tick) nextHash++;
+            if (nextHash < hashCount && hashTicks[nextHash] == tick) {
+                return hashes[nextHash++] == world.stateHash();
+            }
+            return true;
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Malformed varint in replay log");
+    }
+}
@@ -3,428 +3,320 @@ package game;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
-import java.util.Random;
-
-public class SkeletonKiller extends JPanel implements ActionListener, KeyListener {
-    private static final int WIDTH = 1600;
-    private static final int HEIGHT = 900;
-    private static final int BOSS_SPAWN_SCORE = 3000;
-
-    private Timer timer;
-    private Player player;
-    private ArrayList<Platform> platforms;
-    private ArrayList<Enemy> enemies;
-    private ArrayList<Particle> particles;
-    private ArrayList<Potion> potions;
-    private Boss boss;
-    private int score;
-    private boolean gameOver;
-    private boolean gameWon;
-    private boolean bossSpawned;
-    private Random random;
-    private int cameraX;
-    private int enemyKillCount = 0;
-    private long lastPotionDropTime = 0;
-
-    private double[] parallaxSpeeds;
-    private Image[] backgroundLayers;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Swing front end: feeds keyboard input into a GameWorld on the loop thread and
+ * paints the latest snapshot through WorldRenderer. All game rules live in GameWorld.
+ */
+public class SkeletonKiller extends JPanel implements KeyListener {
+    static final int WIDTH = GameWorld.WIDTH;
+    static final int HEIGHT = GameWorld.HEIGHT;
+
+    private final GameLoop loop;
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+    // key events จาก EDT -> apply บน game-loop thread ตอนต้น tick
+    private final InputRing pendingKeys = new InputRing(1024);
+    private final InputRing.Sink applyKey = this::applyKey;
+    private long drainNanos;       // loop thread: เวลาที่ tick นี้เริ่มอ่าน input
+    private long tickInputNanos;   // loop thread: key แรกที่ tick นี้ใช้ (0 = ไม่มี)
+    private long lastInputNanos;   // loop thread: ค่าล่าสุดที่ไม่ใช่ 0 -> ติดไปกับทุก snapshot
+    private long drawnInputNanos;  // render thread
+    private long presentedInputNanos;
+
+    // key event -> tick ที่ใช้มัน / -> เฟรมแรกที่วาดผลของ tick นั้นเสร็จ
+    private static final Metrics.Timer T_KEY_TICK = Metrics.timer("input.toTick");
+    private static final Metrics.Timer T_KEY_FRAME = Metrics.timer("input.toFrame");
+    private static final Metrics.Gauge G_DROPPED = Metrics.gauge("input.dropped");
+
+    private final GameWorld world = new GameWorld();
+    private final PlayerInput input = new PlayerInput();
+    private final WorldRenderer renderer;
+    private ReplayLog.Recorder recorder;
+    // F5 = บันทึก checkpoint (ใน memory + ไฟล์), F9 = โหลดกลับ (ยังไม่เคยบันทึกใน session นี้ -> อ่านจากไฟล์)
+    private final WorldCheckpoint checkpoint = new WorldCheckpoint();
+    private final Path checkpointPath = Path.of(System.getProperty("game.checkpoint", "checkpoint.sav"));
 
     public SkeletonKiller() {
+        this(false);
+    }
+
+    // activeRendering = true -> ActiveRenderer วาดเองบน Canvas, loop ไม่ต้องขอ repaint
+    public SkeletonKiller(boolean activeRendering) {
         setPreferredSize(new Dimension(WIDTH, HEIGHT));
         setBackground(new Color(20, 20, 30));
         setFocusable(true);
         addKeyListener(this);
 
-        loadBackgrounds(); // โหลดพื้นหลังจาก resource path
-        initGame();
-
-        timer = new Timer(1000 / 60, this);
-        timer.start();
-    }
-
-    // ✅ โหลดพื้นหลังจาก resourcePath
-    private void loadBackgrounds() {
-        backgroundLayers = new Image[] {
-                loadImage("/assets/bg1.png"),
-                loadImage("/assets/bg2.png"),
-                loadImage("/assets/bg3.png")
-        };
-        parallaxSpeeds = new double[] { 0.2, 0.4, 0.6 };
+        preloadSprites();
+        renderer = new WorldRenderer();
+        publishSnapshot();
+        startRecording(System.getProperty("game.record"));
 
-        for (int i = 0; i < backgroundLayers.length; i++) {
-            if (backgroundLayers[i] == null) {
-                System.err.println("⚠️ Background " + i + " failed to load!");
-            } else {
-                System.out.println("✅ Background " + i + " loaded successfully.");
-            }
+        if (activeRendering) {
+            loop = new GameLoop(this::tick, () -> {}, 0);
+        } else {
+            loop = new GameLoop(this::tick, this::repaint, displayRefreshRate());
         }
     }
 
-    // ✅ โหลดภาพแบบ resource path
-    private Image loadImage(String resourcePath) {
-        try {
-            java.net.URL url = getClass().getResource(resourcePath);
-            if (url != null) return new ImageIcon(url).getImage();
-        } catch (Exception ignored) {}
-        try {
-            return new ImageIcon(resourcePath.replaceFirst("/", "")).getImage();
-        } catch (Exception e) {
-            System.err.println("Failed to load image: " + resourcePath);
-            return null;
-        }
+    // sim thread เริ่มเมื่อ panel ขึ้นจอ และหยุดเมื่อถูกถอดออก
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        start();
     }
 
-    private void initGame() {
-        random = new Random();
-        platforms = new ArrayList<>();
-        enemies = new ArrayList<>();
-        particles = new ArrayList<>();
-        potions = new ArrayList<>();
-        boss = null;
-        score = 0;
-        gameOver = false;
-        gameWon = false;
-        bossSpawned = false;
-        cameraX = 0;
-        enemyKillCount = 0;
-        lastPotionDropTime = System.currentTimeMillis();
-
-        createLevel();
-        player = new Player(100, 100);
-        spawnEnemies();
+    @Override
+    public void removeNotify() {
+        stop();
+        super.removeNotify();
     }
 
-    private void createLevel() {
-        // พื้นล่างสุด
-        platforms.add(new Platform(0, HEIGHT - 90, WIDTH * 3, 60, true, 0));
-
-        // ขอบซ้ายและขวา
-        platforms.add(new Platform(-200, 0, 200, HEIGHT, true, 0));
-        platforms.add(new Platform(WIDTH * 3, 0, 200, HEIGHT, true, 0));
+    public void start() {
+        loop.start();
+    }
 
-        // แพลตฟอร์มระดับกลาง
-        int baseY = HEIGHT - 300;
-        for (int i = 0; i < 20; i++) {
-            int x = 500 + i * 250 + random.nextInt(60);
-            int y = baseY - random.nextInt(100);
-            int w = 100 + random.nextInt(100);
-            platforms.add(new Platform(x, y, w, 20));
-        }
+    public void stop() {
+        loop.stop();
     }
 
-    private void spawnEnemies() {
-        for (int i = 0; i < 5; i++) {
-            enemies.add(new Enemy(300 + i * 350, 50));
-        }
+    GameWorld getWorld() {
+        return world;
     }
 
-    private void spawnBoss() {
-        if (!bossSpawned) {
-            bossSpawned = true;
-            enemies.clear();
-            boss = new Boss(cameraX + WIDTH / 2 + 200, 50);
-            lastPotionDropTime = System.currentTimeMillis();
-            System.out.println("⚠️ BOSS SPAWNED!");
+    // บันทึก input ทั้ง session ลงไฟล์ (เล่นซ้ำด้วย HeadlessRunner --replay=...)
+    private void startRecording(String path) {
+        if (path == null) return;
+        try {
+            recorder = ReplayLog.record(Path.of(path), world);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    recorder.close();
+                } catch (IOException ignored) {
+                }
+            }));
+            System.out.println("✅ Recording replay to " + path + " (seed " + world.getSeed() + ")");
+        } catch (IOException e) {
+            System.err.println("❌ Cannot record replay: " + e.getMessage());
         }
     }
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (!gameOver && !gameWon) update();
-        repaint();
+    // วาดตาม refresh rate ของจอ (override ได้ด้วย -Dgame.fps=N)
+    static int displayRefreshRate() {
+        int fps = Integer.getInteger("game.fps", 0);
+        if (fps > 0 || GraphicsEnvironment.isHeadless()) return fps;
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? 240 : rate;
     }
 
-    private void update() {
-        player.update(platforms);
-        player.x = Math.max(0, Math.min(player.x, WIDTH * 3 - player.width));
-
-        if (score >= BOSS_SPAWN_SCORE && !bossSpawned) spawnBoss();
-
-        if (boss != null) {
-            boss.update(player, platforms);
-            handleBossCombat();
-            handleBossPotionDrops();
-        } else {
-            updateEnemies();
-        }
-
-        updatePotions();
-
-        particles.removeIf(p -> {
-            p.update();
-            return p.life <= 0;
-        });
-
-        cameraX = (int) (player.x - WIDTH / 2);
-        cameraX = Math.max(0, cameraX);
+    // ✅ decode ทุก sheet ครั้งเดียวก่อนเริ่มเกม -> spawn กลางเกมเป็น cache hit ทั้งหมด
+    private void preloadSprites() {
+        SpriteCache.preload(
+                "/assets/player_idle.png", "/assets/player_run.png", "/assets/player_dash.png",
+                "/assets/player_attack.png", "/assets/player_attack2.png",
+                "/assets/enemy_idle.png", "/assets/enemy_walk.png", "/assets/enemy_attack.png",
+                "/assets/potion_health.png", "/assets/potion_speed.png", "/assets/potion_power.png");
+        System.out.println("✅ Sprite cache: " + SpriteCache.size() + " sheets, "
+                + (SpriteCache.bytesHeld() / 1024) + " KB");
     }
 
-    private void handleBossCombat() {
-        if (player.isAttacking && player.canDealDamage && !player.hasDealtDamage &&
-                player.getAttackBox().intersects(boss.getBounds())) {
-
-            int actualDamage = player.powerBuff ? player.damage * 2 : player.damage;
-            boss.health -= actualDamage;
-            boss.hit = true;
-            boss.knockbackX = player.facingRight ? 20 : -20;
-            createHitParticles(boss.x + boss.width / 2, boss.y + boss.height / 2);
+    // ============================ Game loop thread ============================
+    void tick() {
+        processInput();
+        world.step(input);
+        if (recorder != null) recorder.record(input, world);
+        input.clearPresses();
+        publishSnapshot();
+    }
 
-            player.hasDealtDamage = true;
-            player.canDealDamage = false;
+    private void processInput() {
+        drainNanos = System.nanoTime();
+        tickInputNanos = 0;
+        pendingKeys.drain(applyKey);
+        if (tickInputNanos != 0) lastInputNanos = tickInputNanos;
+        G_DROPPED.set(pendingKeys.dropped());
+    }
 
-            if (boss.health <= 0) {
-                boss = null;
-                score += 1000;
-                gameWon = true;
+    private void applyKey(int keyCode, boolean pressed, long nanos) {
+        switch (keyCode) {
+            case KeyEvent.VK_A -> input.left = pressed;
+            case KeyEvent.VK_D -> input.right = pressed;
+            case KeyEvent.VK_W -> input.jump |= pressed;
+            case KeyEvent.VK_J -> input.attack |= pressed;
+            case KeyEvent.VK_K -> input.dash |= pressed;
+            case KeyEvent.VK_R -> input.restart |= pressed;
+            case KeyEvent.VK_F5 -> {
+                if (pressed) saveCheckpoint();
+                return;
             }
-        }
-
-        if (boss != null && boss.isAttacking && boss.getAttackBox().intersects(player.getBoundsWorld())) {
-            if (!player.isHit) {
-                player.health -= boss.damage;
-                player.isHit = true;
-                player.hitTimer = 30;
-                player.knockbackX = boss.x < player.x ? 25 : -25;
-
-                if (player.health <= 0) gameOver = true;
+            case KeyEvent.VK_F9 -> {
+                if (pressed) loadCheckpoint();
+                return;
+            }
+            default -> {
+                return;
             }
         }
+        T_KEY_TICK.record(drainNanos - nanos);
+        if (tickInputNanos == 0) tickInputNanos = nanos;
     }
 
-    private void updateEnemies() {
-        for (int i = enemies.size() - 1; i >= 0; i--) {
-            Enemy enemy = enemies.get(i);
-            enemy.update(player, platforms);
-            enemy.x = Math.max(0, Math.min(enemy.x, WIDTH * 3 - enemy.width));
-
-            if (player.isAttacking && player.canDealDamage && !player.hasDealtDamage &&
-                    player.getAttackBox().intersects(enemy.getBounds())) {
-
-                int actualDamage = player.powerBuff ? player.damage * 2 : player.damage;
-                enemy.health -= actualDamage;
-                enemy.hit = true;
-                enemy.knockbackX = player.facingRight ? 16 : -16;
-                createHitParticles(enemy.x, enemy.y);
-
-                player.hasDealtDamage = true;
-                player.canDealDamage = false;
-
-                if (enemy.health <= 0) {
-                    enemies.remove(i);
-                    score += 100;
-                    enemyKillCount++;
-
-                    if (enemyKillCount % 5 == 0) dropPotion(enemy.x, enemy.y);
-
-                    if (score < BOSS_SPAWN_SCORE)
-                        enemies.add(new Enemy(cameraX + WIDTH + 200, 50));
-                }
-            }
-
-            if (i < enemies.size() && enemy.isAttacking &&
-                    enemy.getAttackBox().intersects(player.getBoundsWorld())) {
-                if (!player.isHit) {
-                    player.health -= enemy.damage;
-                    player.isHit = true;
-                    player.hitTimer = 30;
-                    player.knockbackX = enemy.x < player.x ? 20 : -20;
-                    if (player.health <= 0) gameOver = true;
-                }
+    // ทำระหว่าง drain input บน loop thread -> world ไม่ได้อยู่กลาง tick; เขียนไฟล์บน thread อื่น
+    private void saveCheckpoint() {
+        long t0 = System.nanoTime();
+        checkpoint.capture(world);
+        long t1 = System.nanoTime();
+        long tick = checkpoint.tick();
+        int size = checkpoint.size();
+        Path path = checkpointPath;
+        checkpoint.writeAsync(path).whenComplete((done, e) -> {
+            if (e == null) {
+                System.out.printf("💾 Checkpoint at tick %d: %d bytes, captured in %.2f ms, saved to %s%n",
+                        tick, size, (t1 - t0) / 1e6, path);
+            } else {
+                System.err.println("❌ Cannot write checkpoint: " + e.getMessage());
             }
-        }
+        });
     }
 
-    private void handleBossPotionDrops() {
-        long now = System.currentTimeMillis();
-        if (now - lastPotionDropTime >= 5000) {
-            double x = cameraX + random.nextInt(WIDTH - 100) + 50;
-            potions.add(new Potion(x, 0, Potion.Type.values()[random.nextInt(3)]));
-            lastPotionDropTime = now;
+    private void loadCheckpoint() {
+        // replay ต้องเล่นต่อเนื่องจาก tick 0
+        if (recorder != null) {
+            System.out.println("⚠️ Checkpoints cannot be loaded while recording a replay");
+            return;
         }
-    }
-
-    private void updatePotions() {
-        for (Potion p : potions) {
-            if (!p.collected) {
-                p.y += 4;
-                for (Platform plat : platforms) {
-                    if (p.getBounds().intersects(plat.getBounds())) {
-                        p.y = plat.y - p.height;
-                    }
-                }
-
-                if (p.getBounds().intersects(player.getBoundsWorld())) {
-                    p.collected = true;
-                    switch (p.type) {
-                        case HEALTH -> player.health = Math.min(100, player.health + 50);
-                        case SPEED -> {
-                            player.speedBuff = true;
-                            player.buffTimer = 8 * 60;
-                        }
-                        case POWER -> {
-                            player.powerBuff = true;
-                            player.buffTimer = 8 * 60;
-                        }
-                    }
-                }
-            }
+        try {
+            if (checkpoint.isEmpty()) checkpoint.read(checkpointPath);
+            long t0 = System.nanoTime();
+            checkpoint.restore(world);
+            System.out.printf("⏪ Back to tick %d in %.2f ms%n", checkpoint.tick(), (System.nanoTime() - t0) / 1e6);
+        } catch (IOException | RuntimeException e) {
+            // restore() คืน world กลับสภาพเดิมแล้ว -> เล่นต่อได้
+            System.err.println("❌ Cannot load checkpoint: " + e.getMessage());
         }
     }
 
-    private void dropPotion(double x, double y) {
-        Potion.Type type = Potion.Type.values()[random.nextInt(3)];
-        potions.add(new Potion(x, y, type));
-    }
-
-    private void createHitParticles(double x, double y) {
-        for (int i = 0; i < 12; i++) particles.add(new Particle(x, y));
+    private void publishSnapshot() {
+        RenderSnapshot s = snapshots.back();
+        s.capture(world);
+        s.inputNanos = lastInputNanos;
+        s.publishedNanos = System.nanoTime();
+        s.ready = true;
+        snapshots.publish();
     }
 
+    // ============================ Paint ============================
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-
-        // 🌄 วาดพื้นหลังแบบ parallax
-        for (int i = 0; i < backgroundLayers.length; i++) {
-            Image bg = backgroundLayers[i];
-            if (bg == null) continue;
-            double offset = -(cameraX * parallaxSpeeds[i]) % WIDTH;
-            g2d.drawImage(bg, (int) offset, 0, WIDTH, HEIGHT, this);
-            g2d.drawImage(bg, (int) offset + WIDTH, 0, WIDTH, HEIGHT, this);
-        }
-
-        if (!gameOver && !gameWon) {
-            g2d.translate(-cameraX, 0);
-
-            for (Platform p : platforms) p.draw(g2d);
-            for (Potion p : potions) p.draw(g2d);
-            for (Particle p : particles) p.draw(g2d);
-            if (boss != null) boss.draw(g2d);
-            for (Enemy e : enemies) e.draw(g2d);
-            player.draw(g2d);
-
-            g2d.translate(cameraX, 0);
-            drawUI(g2d);
-        } else if (gameOver) {
-            drawGameOver(g2d);
-        } else if (gameWon) {
-            drawGameWon(g2d);
-        }
-    }
-
-    // ============================ UI ============================
-    private void drawGameOver(Graphics2D g) {
-        g.setColor(new Color(0, 0, 0, 180));
-        g.fillRect(0, 0, WIDTH, HEIGHT);
-
-        g.setColor(new Color(200, 50, 50));
-        g.setFont(new Font("Arial", Font.BOLD, 60));
-        String text = "YOU DIED";
-        int w = g.getFontMetrics().stringWidth(text);
-        g.drawString(text, WIDTH / 2 - w / 2, HEIGHT / 2 - 30);
-
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 30));
-        text = "Final Score: " + score;
-        w = g.getFontMetrics().stringWidth(text);
-        g.drawString(text, WIDTH / 2 - w / 2, HEIGHT / 2 + 20);
-
-        g.setFont(new Font("Arial", Font.PLAIN, 20));
-        text = "Press R to Restart";
-        w = g.getFontMetrics().stringWidth(text);
-        g.drawString(text, WIDTH / 2 - w / 2, HEIGHT / 2 + 60);
+        render((Graphics2D) g);
+        Toolkit.getDefaultToolkit().sync();
+        framePresented();
     }
 
-    private void drawGameWon(Graphics2D g) {
-        g.setColor(new Color(255, 215, 0, 70));
-        g.fillRect(0, 0, WIDTH, HEIGHT);
-
-        g.setColor(new Color(255, 215, 0));
-        g.setFont(new Font("Arial", Font.BOLD, 70));
-        String text = "VICTORY!";
-        int w = g.getFontMetrics().stringWidth(text);
-        g.drawString(text, WIDTH / 2 - w / 2, HEIGHT / 2 - 50);
-
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 40));
-        text = "Boss Defeated!";
-        w = g.getFontMetrics().stringWidth(text);
-        g.drawString(text, WIDTH / 2 - w / 2, HEIGHT / 2 + 10);
-
-        g.setFont(new Font("Arial", Font.BOLD, 30));
-        text = "Final Score: " + score;
-        w = g.getFontMetrics().stringWidth(text);
-        g.drawString(text, WIDTH / 2 - w / 2, HEIGHT / 2 + 60);
-
-        g.setFont(new Font("Arial", Font.PLAIN, 20));
-        g.setColor(new Color(255, 215, 0));
-        text = "Press R to Play Again";
-        w = g.getFontMetrics().stringWidth(text);
-        g.drawString(text, WIDTH / 2 - w / 2, HEIGHT / 2 + 100);
+    /** Draws the newest published tick; shared by paintComponent and ActiveRenderer. */
+    void render(Graphics2D g2d) {
+        RenderSnapshot s = snapshots.latest();
+        if (!s.ready) return;
+        renderer.render(g2d, s, GameLoop.alpha(s.publishedNanos));
+        drawnInputNanos = s.inputNanos;
     }
 
-    private void drawUI(Graphics2D g) {
-        g.setColor(new Color(50, 50, 60, 200));
-        g.fillRoundRect(15, 15, 214, 34, 10, 10);
-        g.setColor(Color.RED);
-        g.fillRoundRect(20, 20, (int) (player.health * 2), 24, 8, 8);
-        g.setColor(Color.WHITE);
-        g.drawRoundRect(20, 20, 204, 24, 8, 8);
-
-        g.setFont(new Font("Arial", Font.BOLD, 24));
-        g.setColor(Color.YELLOW);
-        g.drawString("Score: " + score, 20, 70);
-
-        if (player.speedBuff || player.powerBuff) {
-            int y = 110;
-            g.setFont(new Font("Arial", Font.BOLD, 16));
-            if (player.speedBuff) {
-                g.setColor(Color.CYAN);
-                g.drawString("⚡ Speed Up (" + (player.buffTimer / 60) + "s)", 20, y);
-                y += 20;
-            }
-            if (player.powerBuff) {
-                g.setColor(Color.ORANGE);
-                g.drawString("💪 Power Up (" + (player.buffTimer / 60) + "s)", 20, y);
-            }
+    /** Call once the frame drawn by render() has been handed to the display. */
+    void framePresented() {
+        // input ชุดใหม่ขึ้นจอครั้งแรก -> วัด latency (ชุดที่ถูกทับก่อนได้วาดจะไม่ถูกนับ)
+        if (drawnInputNanos != 0 && drawnInputNanos != presentedInputNanos) {
+            T_KEY_FRAME.record(System.nanoTime() - drawnInputNanos);
+            presentedInputNanos = drawnInputNanos;
         }
     }
 
     // ============================ Key Controls ============================
     @Override
     public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
-        if ((gameOver || gameWon) && key == KeyEvent.VK_R) {
-            initGame();
+        // overlay เป็นของฝั่งวาด ไม่ต้องผ่าน sim
+        if (e.getKeyCode() == KeyEvent.VK_F3) {
+            renderer.toggleOverlay();
             return;
         }
-        if (!gameOver && !gameWon) {
-            switch (key) {
-                case KeyEvent.VK_A -> player.moveLeft = true;
-                case KeyEvent.VK_D -> player.moveRight = true;
-                case KeyEvent.VK_W -> player.jump();
-                case KeyEvent.VK_J -> player.startAttack();
-                case KeyEvent.VK_K -> player.dash();
-            }
-        }
+        pendingKeys.offer(e.getKeyCode(), true, System.nanoTime());
     }
 
     @Override public void keyReleased(KeyEvent e) {
-        if (e.getKeyCode() == KeyEvent.VK_A) player.moveLeft = false;
-        if (e.getKeyCode() == KeyEvent.VK_D) player.moveRight = false;
+        pendingKeys.offer(e.getKeyCode(), false, System.nanoTime());
     }
     @Override public void keyTyped(KeyEvent e) {}
 
+    // ============================ Launch ============================
+    // --renderer=passive|active   --fullscreen   --mode=1920x1080[@144]   --buffers=2|3   --cleave=N   --endless   --horde   --record=file   --checkpoint=file
     public static void main(String[] args) {
+        boolean active = false;
+        boolean fullScreen = false;
+        int modeW = 0, modeH = 0, modeHz = 0;
+        int buffers = 2;
+        for (String arg : args) {
+            if (arg.equals("--renderer=active")) active = true;
+            else if (arg.equals("--renderer=passive")) active = false;
+            else if (arg.equals("--fullscreen")) fullScreen = true;
+            else if (arg.startsWith("--buffers=")) buffers = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--cleave=")) System.setProperty("game.cleave", arg.substring(9));
+            else if (arg.equals("--endless")) System.setProperty("game.world.chunks", "0");
+            else if (arg.equals("--horde")) System.setProperty("game.horde", "true");
+            else if (arg.startsWith("--record=")) System.setProperty("game.record", arg.substring(9));
+            else if (arg.startsWith("--checkpoint=")) System.setProperty("game.checkpoint", arg.substring(13));
+            else if (arg.startsWith("--mode=")) {
+                String[] mode = arg.substring(7).split("[x@]");
+                modeW = Integer.parseInt(mode[0]);
+                modeH = Integer.parseInt(mode[1]);
+                if (mode.length > 2) modeHz = Integer.parseInt(mode[2]);
+            } else {
+                System.err.println("Unknown option: " + arg);
+            }
+        }
+        // full-screen ใช้ได้เฉพาะ active path
+        if (fullScreen) active = true;
+
+        boolean activeRendering = active;
+        boolean exclusive = fullScreen;
+        int w = modeW, h = modeH, hz = modeHz, n = buffers;
         SwingUtilities.invokeLater(() -> {
             JFrame frame = new JFrame("Skeleton Killer");
-            frame.add(new SkeletonKiller());
-            frame.pack();
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            frame.setLocationRelativeTo(null);
+            if (!activeRendering) {
+                frame.add(new SkeletonKiller());
+                frame.pack();
+                frame.setLocationRelativeTo(null);
+                frame.setVisible(true);
+                return;
+            }
+
+            SkeletonKiller game = new SkeletonKiller(true);
+            ActiveRenderer renderer = new ActiveRenderer(game, n, displayRefreshRate());
+            frame.setIgnoreRepaint(true);
+            frame.add(renderer);
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    renderer.stop();
+                }
+            });
+            if (exclusive) {
+                frame.setUndecorated(true);
+                frame.setResizable(false);
+                if (!renderer.enterFullScreen(frame, w, h, hz)) {
+                    frame.setUndecorated(false);
+                    frame.pack();
+                    frame.setLocationRelativeTo(null);
+                }
+            } else {
+                frame.pack();
+                frame.setLocationRelativeTo(null);
+            }
             frame.setVisible(true);
+            renderer.start();
         });
     }
 }
@@ -0,0 +1,350 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Uniform-grid spatial hash for moving entities.
+ * Each item is stored with an axis-aligned box and registered in every cell the box touches;
+ * update() only re-buckets an item when its cell range actually changes.
+ * Queries append to a caller-owned list, so a warm hash answers them without allocating.
+ */
+public class SpatialHash<T> {
+    private static final class Entry<T> {
+        T item;
+        int x, y, w, h;
+        int cx0, cy0, cx1, cy1;
+        int stamp;
+        // ตำแหน่งใน bucket ของแต่ละ cell ที่คลุม (เรียงแถวตาม cy แล้ว cx) -> ถอดออกได้ O(1)
+        int[] slots = new int[4];
+
+        int slot(int cx, int cy) {
+            return (cy - cy0) * (cx1 - cx0 + 1) + (cx - cx0);
+        }
+    }
+
+    private static final class Bucket<T> {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Entry<T>[] items = new Entry[4];
+        int size;
+
+        void add(Entry<T> e, int cx, int cy) {
+            if (size == items.length) items = java.util.Arrays.copyOf(items, size * 2);
+            e.slots[e.slot(cx, cy)] = size;
+            items[size++] = e;
+        }
+
+        // swap-remove แล้วแก้ตำแหน่งของตัวที่ถูกย้ายมาแทน (ไม่ต้องไล่หาใน bucket ที่แน่น)
+        void remove(Entry<T> e, int cx, int cy) {
+            int i = e.slots[e.slot(cx, cy)];
+            Entry<T> last = items[--size];
+            items[i] = last;
+            items[size] = null;
+            if (last != e) last.slots[last.slot(cx, cy)] = i;
+        }
+    }
+
+    private final int cellShift;
+    private final IdentityHashMap<T, Entry<T>> entries = new IdentityHashMap<>();
+    // entry ของ item ที่ถูกถอดไปแล้ว (slots ที่ขยายไว้ใช้ต่อได้) -> ศัตรูตาย/เกิดใหม่ไม่ต้อง allocate
+    private final ArrayList<Entry<T>> spareEntries = new ArrayList<>();
+
+    // open addressing: cell key -> bucket; cell ที่ว่างลงถูกถอดออกจากตาราง (backward shift)
+    // แล้ว bucket กลับเข้า pool -> ตารางโตตาม cell ที่มีของอยู่พร้อมกัน ไม่ใช่ตามระยะที่เดินมา
+    private long[] keys;
+    private Bucket<T>[] buckets;
+    private int bucketCount;
+    private Bucket<T>[] spare;
+    private int spareCount;
+    private int stamp;
+
+    /** @param cellShift log2 of the cell size in pixels (7 = 128 px cells) */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SpatialHash(int cellShift) {
+        this.cellShift = cellShift;
+        this.keys = new long[256];
+        this.buckets = new Bucket[256];
+        this.spare = new Bucket[64];
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int cellSize() {
+        return 1 << cellShift;
+    }
+
+    /** Inserts the item, or moves it if it is already indexed. */
+    public void update(T item, int x, int y, int w, int h) {
+        Entry<T> e = entries.get(item);
+        int cx0 = x >> cellShift, cy0 = y >> cellShift;
+        int cx1 = (x + w) >> cellShift, cy1 = (y + h) >> cellShift;
+
+        if (e == null) {
+            e = entry(item);
+            entries.put(item, e);
+            setBounds(e, x, y, w, h, cx0, cy0, cx1, cy1);
+            addToCells(e);
+            return;
+        }
+        if (cx0 == e.cx0 && cy0 == e.cy0 && cx1 == e.cx1 && cy1 == e.cy1) {
+            e.x = x; e.y = y; e.w = w; e.h = h;
+            return;
+        }
+        removeFromCells(e);
+        setBounds(e, x, y, w, h, cx0, cy0, cx1, cy1);
+        addToCells(e);
+    }
+
+    public void remove(T item) {
+        Entry<T> e = entries.remove(item);
+        if (e != null) {
+            removeFromCells(e);
+            recycle(e);
+        }
+    }
+
+    public boolean contains(T item) {
+        return entries.containsKey(item);
+    }
+
+    public void clear() {
+        for (Entry<T> e : entries.values()) recycle(e);
+        entries.clear();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != null) {
+                release(buckets[i]);
+                buckets[i] = null;
+            }
+        }
+        bucketCount = 0;
+    }
+
+    /** Cells currently holding at least one item. */
+    public int cellCount() {
+        return bucketCount;
+    }
+
+    /**
+     * Writes every box plus the exact order of every cell, naming items through id. Queries
+     * return items in cell order, so a checkpoint has to keep it for a restored world to resolve
+     * ties the same way as the original.
+     */
+    public void save(ByteBuffer b, ToIntFunction<? super T> id) {
+        b.putInt(entries.size());
+        for (Entry<T> e : entries.values()) {
+            b.putInt(id.applyAsInt(e.item)).putInt(e.x).putInt(e.y).putInt(e.w).putInt(e.h);
+        }
+        int used = 0;
+        for (Bucket<T> bk : buckets) {
+            if (bk != null && bk.size > 0) used++;
+        }
+        b.putInt(used);
+        for (int i = 0; i < buckets.length; i++) {
+            Bucket<T> bk = buckets[i];
+            if (bk == null || bk.size == 0) continue;
+            b.putLong(keys[i]).putInt(bk.size);
+            for (int j = 0; j < bk.size; j++) b.putInt(id.applyAsInt(bk.items[j].item));
+        }
+    }
+
+    /** Replaces the contents with what save() wrote, turning ids back into items. */
+    public void load(ByteBuffer b, IntFunction<? extends T> item) {
+        clear();
+        for (int n = b.getInt(); n > 0; n--) {
+            T it = item.apply(b.getInt());
+            int x = b.getInt(), y = b.getInt(), w = b.getInt(), h = b.getInt();
+            // ทุก cell ที่กล่องทับต้องมี id ของมันใน bucket ข้างล่าง (4 byte ต่อครั้ง) -> กล่องเสียจับได้ก่อนจอง slots
+            if (w < 0 || h < 0 || x + w < x || y + h < y || (long) (((x + w) >> cellShift) - (x >> cellShift) + 1)
+                    * (((y + h) >> cellShift) - (y >> cellShift) + 1) > b.remaining() / 4) {
+                throw new IllegalArgumentException("bad index box " + w + "x" + h);
+            }
+            Entry<T> e = entry(it);
+            setBounds(e, x, y, w, h, x >> cellShift, y >> cellShift, (x + w) >> cellShift, (y + h) >> cellShift);
+            int cells = (e.cx1 - e.cx0 + 1) * (e.cy1 - e.cy0 + 1);
+            if (e.slots.length < cells) e.slots = new int[cells];
+            entries.put(it, e);
+        }
+        for (int n = b.getInt(); n > 0; n--) {
+            long key = b.getLong();
+            int cx = (int) (key >> 32), cy = (int) key;
+            Bucket<T> bk = bucket(key, true);
+            for (int size = b.getInt(); size > 0; size--) bk.add(entries.get(item.apply(b.getInt())), cx, cy);
+        }
+    }
+
+    /** Appends every item of the given type whose box overlaps the rectangle. */
+    public <E> void queryRect(int x, int y, int w, int h, Class<E> type, List<? super E> out) {
+        int s = ++stamp;
+        int cx0 = x >> cellShift, cy0 = y >> cellShift;
+        int cx1 = (x + w) >> cellShift, cy1 = (y + h) >> cellShift;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                Bucket<T> b = bucket(key(cx, cy), false);
+                if (b == null) continue;
+                for (int i = 0; i < b.size; i++) {
+                    Entry<T> e = b.items[i];
+                    if (e.stamp == s) continue;
+                    e.stamp = s;
+                    if (type.isInstance(e.item)
+                            && e.x < x + w && x < e.x + e.w
+                            && e.y < y + h && y < e.y + e.h) {
+                        out.add(type.cast(e.item));
+                    }
+                }
+            }
+        }
+    }
+
+    /** Appends every item of the given type whose box is within radius px of (px, py). */
+    public <E> void queryRadius(double px, double py, double radius, Class<E> type, List<? super E> out) {
+        int s = ++stamp;
+        double r2 = radius * radius;
+        int cx0 = (int) Math.floor(px - radius) >> cellShift, cy0 = (int) Math.floor(py - radius) >> cellShift;
+        int cx1 = (int) Math.ceil(px + radius) >> cellShift, cy1 = (int) Math.ceil(py + radius) >> cellShift;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                Bucket<T> b = bucket(key(cx, cy), false);
+                if (b == null) continue;
+                for (int i = 0; i < b.size; i++) {
+                    Entry<T> e = b.items[i];
+                    if (e.stamp == s) continue;
+                    e.stamp = s;
+                    if (!type.isInstance(e.item)) continue;
+                    // ระยะจากจุดถึงขอบกล่องที่ใกล้ที่สุด
+                    double dx = Math.max(Math.max(e.x - px, 0), px - (e.x + e.w));
+                    double dy = Math.max(Math.max(e.y - py, 0), py - (e.y + e.h));
+                    if (dx * dx + dy * dy <= r2) out.add(type.cast(e.item));
+                }
+            }
+        }
+    }
+
+    private void setBounds(Entry<T> e, int x, int y, int w, int h, int cx0, int cy0, int cx1, int cy1) {
+        e.x = x; e.y = y; e.w = w; e.h = h;
+        e.cx0 = cx0; e.cy0 = cy0; e.cx1 = cx1; e.cy1 = cy1;
+    }
+
+    private void addToCells(Entry<T> e) {
+        int cells = (e.cx1 - e.cx0 + 1) * (e.cy1 - e.cy0 + 1);
+        if (e.slots.length < cells) e.slots = new int[cells];
+        for (int cy = e.cy0; cy <= e.cy1; cy++) {
+            for (int cx = e.cx0; cx <= e.cx1; cx++) {
+                bucket(key(cx, cy), true).add(e, cx, cy);
+            }
+        }
+    }
+
+    private void removeFromCells(Entry<T> e) {
+        for (int cy = e.cy0; cy <= e.cy1; cy++) {
+            for (int cx = e.cx0; cx <= e.cx1; cx++) {
+                int i = find(key(cx, cy));
+                if (i < 0) continue;
+                Bucket<T> b = buckets[i];
+                b.remove(e, cx, cy);
+                if (b.size == 0) delete(i);
+            }
+        }
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) ^ (cy & 0xffffffffL);
+    }
+
+    private Bucket<T> bucket(long key, boolean create) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (buckets[i] != null) {
+            if (keys[i] == key) return buckets[i];
+            i = (i + 1) & mask;
+        }
+        if (!create) return null;
+        if ((bucketCount + 1) * 4 > keys.length * 3) {
+            grow();
+            return bucket(key, true);
+        }
+        Bucket<T> b;
+        if (spareCount > 0) {
+            b = spare[--spareCount];
+            spare[spareCount] = null;
+        } else {
+            b = new Bucket<>();
+        }
+        keys[i] = key;
+        buckets[i] = b;
+        bucketCount++;
+        return buckets[i];
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (buckets[i] != null) {
+            if (keys[i] == key) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    // ถอดช่อง i แล้วเลื่อนตัวที่ probe ผ่านมันกลับขึ้นมาแทน (linear probing ไม่ต้องใช้ tombstone)
+    private void delete(int i) {
+        release(buckets[i]);
+        int mask = keys.length - 1;
+        for (int j = (i + 1) & mask; buckets[j] != null; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            // ย้ายได้ถ้าช่องว่าง i อยู่ระหว่าง home กับ j (วนรอบ)
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                buckets[i] = buckets[j];
+                i = j;
+            }
+        }
+        buckets[i] = null;
+        bucketCount--;
+    }
+
+    private Entry<T> entry(T item) {
+        Entry<T> e = spareEntries.isEmpty() ? new Entry<>() : spareEntries.remove(spareEntries.size() - 1);
+        e.item = item;
+        return e;
+    }
+
+    private void recycle(Entry<T> e) {
+        e.item = null;
+        spareEntries.add(e);
+    }
+
+    private void release(Bucket<T> b) {
+        // ไม่ถือ reference ของ entry ที่ถอดไปแล้ว
+        java.util.Arrays.fill(b.items, 0, b.size, null);
+        b.size = 0;
+        if (spareCount == spare.length) spare = java.util.Arrays.copyOf(spare, spareCount * 2);
+        spare[spareCount++] = b;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void grow() {
+        long[] oldKeys = keys;
+        Bucket<T>[] oldBuckets = buckets;
+        keys = new long[oldKeys.length * 2];
+        buckets = new Bucket[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldBuckets[j] == null) continue;
+            int i = mix(oldKeys[j]) & mask;
+            while (buckets[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            buckets[i] = oldBuckets[j];
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,216 @@
+package game;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Process-wide sprite cache keyed by resource path.
+ * Sheets are decoded once into display-compatible images; frame arrays are sliced once per frame size.
+ */
+public final class SpriteCache {
+    // ConcurrentHashMap ไม่รับ null -> ใช้ภาพ 1x1 แทนไฟล์ที่โหลดไม่ได้
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+    private static final BufferedImage[] NO_FRAMES = new BufferedImage[0];
+
+    private static final Map<String, BufferedImage> sheets = new ConcurrentHashMap<>();
+    private static final Map<String, BufferedImage[]> frameSets = new ConcurrentHashMap<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong bytesHeld = new AtomicLong();
+
+    private SpriteCache() {}
+
+    /** Whole sheet for a resource path, or null if it could not be loaded. */
+    public static BufferedImage image(String path) {
+        BufferedImage img = sheets.get(path);
+        if (img != null) {
+            hits.incrementAndGet();
+        } else {
+            img = loadOnce(sheets, path, SpriteCache::load);
+        }
+        return img == MISSING ? null : img;
+    }
+
+    /** Sheet sliced left-to-right into frames of the given size, or null if the sheet is missing. */
+    public static BufferedImage[] frames(String path, int frameWidth, int frameHeight) {
+        String key = path + '#' + frameWidth + 'x' + frameHeight;
+        BufferedImage[] frames = frameSets.get(key);
+        if (frames != null) {
+            hits.incrementAndGet();
+        } else {
+            frames = loadOnce(frameSets, key, k -> slice(path, frameWidth, frameHeight));
+        }
+        return frames == NO_FRAMES ? null : frames;
+    }
+
+    /**
+     * Frames pre-scaled to drawWidth x drawHeight and optionally mirrored, so drawing one is a 1:1
+     * blit instead of a scaled or flipped drawImage every frame. Null if the sheet is missing.
+     */
+    public static BufferedImage[] frames(String path, int frameWidth, int frameHeight,
+                                         int drawWidth, int drawHeight, boolean mirrored) {
+        return baked(path, frameWidth, frameHeight, drawWidth, drawHeight, mirrored, null, 1f);
+    }
+
+    /**
+     * Hit-flash variant of frames(...): a box of the flash colour with the sprite on top, both at
+     * the given opacity, baked into one image.
+     */
+    public static BufferedImage[] flashFrames(String path, int frameWidth, int frameHeight,
+                                              int drawWidth, int drawHeight, boolean mirrored,
+                                              Color flash, float opacity) {
+        return baked(path, frameWidth, frameHeight, drawWidth, drawHeight, mirrored, flash, opacity);
+    }
+
+    private static BufferedImage[] baked(String path, int fw, int fh, int dw, int dh, boolean mirrored,
+                                         Color flash, float opacity) {
+        String key = path + '#' + fw + 'x' + fh + '@' + dw + 'x' + dh + (mirrored ? "<" : ">")
+                + (flash != null ? "!" + Integer.toHexString(flash.getRGB()) + '/' + opacity : "");
+        BufferedImage[] frames = frameSets.get(key);
+        if (frames != null) {
+            hits.incrementAndGet();
+        } else {
+            frames = loadOnce(frameSets, key, k -> bake(path, fw, fh, dw, dh, mirrored, flash, opacity));
+        }
+        return frames == NO_FRAMES ? null : frames;
+    }
+
+    /** Loads every path up front so the first spawn doesn't pay for decoding. */
+    public static void preload(String... paths) {
+        for (String path : paths) image(path);
+    }
+
+    public static long hits() { return hits.get(); }
+    public static long misses() { return misses.get(); }
+    public static long bytesHeld() { return bytesHeld.get(); }
+    public static int size() { return sheets.size() + frameSets.size(); }
+
+    public static void clear() {
+        sheets.clear();
+        frameSets.clear();
+        bytesHeld.set(0);
+        hits.set(0);
+        misses.set(0);
+    }
+
+    // เธรดที่แพ้ race ใน computeIfAbsent ได้ของที่อีกเธรดโหลดไว้ -> นับเป็น hit; miss นับเฉพาะคนที่รัน loader จริง
+    private static <V> V loadOnce(Map<String, V> map, String key, Function<String, V> loader) {
+        boolean[] ran = new boolean[1];
+        V value = map.computeIfAbsent(key, k -> {
+            ran[0] = true;
+            return loader.apply(k);
+        });
+        (ran[0] ? misses : hits).incrementAndGet();
+        return value;
+    }
+
+    private static BufferedImage load(String path) {
+        GameEvents.AssetLoadEvent event = new GameEvents.AssetLoadEvent();
+        event.begin();
+        BufferedImage decoded = null;
+        try {
+            URL url = SpriteCache.class.getResource(path);
+            if (url != null) {
+                decoded = ImageIO.read(url);
+            } else {
+                File file = new File(path.replaceFirst("/", ""));
+                if (file.isFile()) decoded = ImageIO.read(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to load image: " + path + " (" + e.getMessage() + ")");
+        }
+        if (decoded == null) {
+            System.err.println("Failed to load image: " + path);
+            commit(event, path, null);
+            return MISSING;
+        }
+        BufferedImage image = copyCompatible(decoded, 0, 0, decoded.getWidth(), decoded.getHeight());
+        commit(event, path, image);
+        return image;
+    }
+
+    private static void commit(GameEvents.AssetLoadEvent event, String path, BufferedImage image) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.path = path;
+        event.found = image != null;
+        if (image != null) {
+            event.width = image.getWidth();
+            event.height = image.getHeight();
+            event.bytes = 4L * image.getWidth() * image.getHeight();
+        }
+        event.commit();
+    }
+
+    private static BufferedImage[] slice(String path, int frameWidth, int frameHeight) {
+        BufferedImage sheet = image(path);
+        if (sheet == null) return NO_FRAMES;
+
+        int count = sheet.getWidth() / frameWidth;
+        int h = Math.min(frameHeight, sheet.getHeight());
+        BufferedImage[] frames = new BufferedImage[count];
+        for (int i = 0; i < count; i++) {
+            frames[i] = copyCompatible(sheet, i * frameWidth, 0, frameWidth, h);
+        }
+        return frames;
+    }
+
+    // ใช้ mapping เดียวกับ drawImage 10 ตัวที่ entity เคยเรียกทุกเฟรม -> pixel เหมือนเดิม แค่ทำครั้งเดียว
+    private static BufferedImage[] bake(String path, int fw, int fh, int dw, int dh, boolean mirrored,
+                                        Color flash, float opacity) {
+        BufferedImage sheet = image(path);
+        if (sheet == null) return NO_FRAMES;
+
+        int count = sheet.getWidth() / fw;
+        BufferedImage[] frames = new BufferedImage[count];
+        for (int i = 0; i < count; i++) {
+            BufferedImage dst = blank(dw, dh);
+            Graphics2D g = dst.createGraphics();
+            if (opacity < 1f) g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity));
+            if (flash != null) {
+                g.setColor(flash);
+                g.fillRect(0, 0, dw, dh);
+            }
+            int sx = i * fw;
+            if (mirrored) {
+                g.drawImage(sheet, dw, 0, 0, dh, sx, 0, sx + fw, fh, null);
+            } else {
+                g.drawImage(sheet, 0, 0, dw, dh, sx, 0, sx + fw, fh, null);
+            }
+            g.dispose();
+            bytesHeld.addAndGet((long) dw * dh * 4);
+            frames[i] = dst;
+        }
+        return frames;
+    }
+
+    // คัดลอกลงภาพที่ format ตรงกับจอ เพื่อให้ Java2D blit ได้โดยไม่ต้องแปลงทุกเฟรม
+    private static BufferedImage copyCompatible(BufferedImage src, int x, int y, int w, int h) {
+        BufferedImage dst = blank(w, h);
+        Graphics2D g = dst.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(src, 0, 0, w, h, x, y, x + w, y + h, null);
+        g.dispose();
+        bytesHeld.addAndGet((long) w * h * 4);
+        return dst;
+    }
+
+    private static BufferedImage blank(int w, int h) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration()
+                .createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+    }
+}
@@ -0,0 +1,42 @@
+package game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free triple buffer for one producer and one consumer.
+ * The producer fills back() and publish()es it; the consumer always gets the newest published slot
+ * and never sees a slot the producer is writing.
+ */
+public class TripleBuffer<T> {
+    private static final int DIRTY = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final Object[] slots = new Object[3];
+    // index ของช่องกลาง + bit DIRTY ถ้ามีของใหม่ที่ consumer ยังไม่ได้หยิบ
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;   // producer only
+    private int front = 2;  // consumer only
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < slots.length; i++) slots[i] = factory.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) slots[back];
+    }
+
+    public void publish() {
+        back = middle.getAndSet(back | DIRTY) & INDEX_MASK;
+    }
+
+    /** Newest published slot; stays valid until the next call to latest(). */
+    @SuppressWarnings("unchecked")
+    public T latest() {
+        if ((middle.get() & DIRTY) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) slots[front];
+    }
+}
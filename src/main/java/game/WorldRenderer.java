@@ -0,0 +1,250 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws a RenderSnapshot: parallax background, the world pass and the HUD.
+ * All AWT drawing lives here so the simulation classes stay display-free. World sprites are
+ * submitted to a RenderQueue and drawn in one sorted flush after the platforms.
+ */
+public class WorldRenderer {
+    private static final int WIDTH = GameWorld.WIDTH;
+    private static final int HEIGHT = GameWorld.HEIGHT;
+
+    private final ParallaxBackground background = new ParallaxBackground(WIDTH, HEIGHT);
+    private final PlatformChunkCache platformCache = new PlatformChunkCache();
+    private final Hud hud = new Hud();
+    private final RenderQueue queue = new RenderQueue();
+
+    private static final Color BOSS_HIT_FLASH = new Color(255, 0, 0, 100);
+    private static final float BOSS_HIT_OPACITY = 0.7f;
+    private static final Color BOSS_AURA = new Color(255, 0, 0, 50);
+    private static final Color BOSS_RING = new Color(255, 100, 100, 100);
+    private static final Color BOSS_FALLBACK = new Color(150, 0, 0);
+    private static final Color TRAIL_COLOR = new Color(255, 240, 100);
+    private static final float TRAIL_OPACITY = 0.4f;
+
+    // frame ที่ scale + กลับด้านไว้แล้ว: [state][0 = หันซ้าย, 1 = หันขวา][frame]; bake ตอนเจอ entity ครั้งแรก
+    private BufferedImage[][][] playerFrames;
+    private BufferedImage[][][] enemyFrames;
+    private BufferedImage[][][] bossFrames;
+    private BufferedImage[][][] bossHitFrames;
+    private final BufferedImage[][] potionFrames = new BufferedImage[Potion.Type.values().length][];
+    // รูปทรงที่เคยวาดสดทุกเฟรม bake เป็นภาพ -> ส่งเข้า queue ได้เหมือน sprite
+    private BufferedImage trailImage, bossAura, bossRing;
+
+    private final PerfOverlay overlay = new PerfOverlay();
+    private static final Metrics.Timer T_FRAME = Metrics.timer("render.frame");
+    private static final Metrics.Timer T_BACKGROUND = Metrics.timer("render.background");
+    private static final Metrics.Timer T_WORLD = Metrics.timer("render.world");
+    private static final Metrics.Timer T_HUD = Metrics.timer("render.hud");
+
+    public WorldRenderer() {
+        loadBackgrounds(); // โหลดพื้นหลังจาก resource path
+        loadSprites();
+    }
+
+    // ✅ โหลดพื้นหลังจาก resourcePath (ไกล -> ใกล้)
+    private void loadBackgrounds() {
+        String[] paths = { "/assets/bg1.png", "/assets/bg2.png", "/assets/bg3.png" };
+        double[] parallaxSpeeds = { 0.2, 0.4, 0.6 };
+
+        for (int i = 0; i < paths.length; i++) {
+            if (!background.addLayer(paths[i], parallaxSpeeds[i])) {
+                System.err.println("⚠️ Background " + i + " failed to load!");
+            } else {
+                System.out.println("✅ Background " + i + " loaded successfully.");
+            }
+        }
+    }
+
+    private void loadSprites() {
+        for (Potion.Type type : Potion.Type.values()) {
+            String path = switch (type) {
+                case HEALTH -> "/assets/potion_health.png";
+                case SPEED -> "/assets/potion_speed.png";
+                case POWER -> "/assets/potion_power.png";
+            };
+            potionFrames[type.ordinal()] = SpriteCache.frames(path, Potion.FRAME_WIDTH, Potion.FRAME_HEIGHT);
+            if (potionFrames[type.ordinal()] == null) {
+                System.err.println("❌ Potion spritesheet not found: " + path);
+            }
+        }
+    }
+
+    /** Draws one snapshot, interpolated alpha (0..1) of the way from its previous tick. */
+    public void render(Graphics2D g2d, RenderSnapshot s, double alpha) {
+        long t0 = System.nanoTime();
+        int camX = s.interpolatedCameraX(alpha);
+
+        // 🌄 วาดพื้นหลังแบบ parallax (layer ถูก scale ไว้แล้ว -> blit อย่างเดียว)
+        background.draw(g2d, camX);
+        long t1 = System.nanoTime();
+        T_BACKGROUND.record(t1 - t0);
+
+        if (!s.gameOver && !s.gameWon) {
+            g2d.translate(-camX, 0);
+
+            platformCache.draw(g2d, s.platforms, camX, WIDTH);
+            for (Potion p : s.potions) drawPotion(p, alpha);
+            ParticleRenderer.submit(queue, s.particles, alpha, camX, WIDTH);
+            if (s.boss != null) drawBoss(s.boss, alpha);
+            for (Enemy e : s.enemies) drawEnemy(e, alpha);
+            drawPlayer(s.player, alpha, camX);
+            queue.flush(g2d);
+            // หลอดเลือด boss วาดทับทุกอย่างในฉาก ไม่ให้ศัตรูบัง
+            if (s.boss != null) {
+                Boss b = s.boss;
+                hud.drawBossBar(g2d, b, lerp(b.prevX, b.x, alpha), lerp(b.prevY, b.y, alpha));
+            }
+
+            g2d.translate(camX, 0);
+            long t2 = System.nanoTime();
+            T_WORLD.record(t2 - t1);
+
+            hud.drawPlayerHud(g2d, s.player, s.score);
+            T_HUD.record(System.nanoTime() - t2);
+        } else if (s.gameOver) {
+            hud.drawGameOver(g2d, s.score);
+        } else if (s.gameWon) {
+            hud.drawGameWon(g2d, s.score);
+        }
+
+        if (overlay.isVisible()) overlay.draw(g2d);
+        T_FRAME.record(System.nanoTime() - t0);
+    }
+
+    /** F3: show or hide the performance overlay. */
+    public void toggleOverlay() {
+        overlay.setVisible(!overlay.isVisible());
+    }
+
+    // ============================ World ============================
+    private void drawPotion(Potion p, double alpha) {
+        if (p.collected) return;
+        int ry = lerp(p.prevY, p.y, alpha);
+        BufferedImage[] frames = potionFrames[p.type.ordinal()];
+        if (frames != null && p.frameIndex < frames.length) {
+            queue.sprite(RenderQueue.LAYER_POTIONS, frames[p.frameIndex], (int) p.x, ry, p.width, p.height);
+        } else {
+            Color color = switch (p.type) {
+                case HEALTH -> Color.RED;
+                case SPEED -> Color.CYAN;
+                case POWER -> Color.ORANGE;
+            };
+            queue.fill(RenderQueue.LAYER_POTIONS, color, (int) p.x, ry, p.width, p.height);
+        }
+    }
+
+    // Draw player, interpolated between the previous and current tick
+    private void drawPlayer(Player p, double alpha, int camX) {
+        // draw dash trails (เฉพาะที่อยู่ในจอ)
+        if (trailImage == null) trailImage = shape(p.width / 2, 10, TRAIL_COLOR, true, true);
+        for (Player.Trail t : p.trails) {
+            if (t.x + p.width < camX || t.x - p.width > camX + WIDTH) continue;
+            float fade = t.life / 10f;
+            int offset = t.facingRight ? 20 : -20;
+            queue.sprite(RenderQueue.LAYER_TRAILS, trailImage, (int)t.x + offset, (int)t.y + p.height / 3,
+                    fade * TRAIL_OPACITY);
+        }
+
+        // draw player sprite
+        int rx = lerp(p.prevX, p.x, alpha);
+        int ry = lerp(p.prevY, p.y, alpha);
+        if (playerFrames == null) {
+            playerFrames = bake(Player.TYPE, Player.CLIPS, null, 1f);
+        }
+        submitFrame(RenderQueue.LAYER_PLAYER, playerFrames[p.state.ordinal()], p.currentFrame, rx, ry, p.facingRight);
+    }
+
+    private void drawEnemy(Enemy e, double alpha) {
+        if (!e.isActive) return; // ❌ ไม่อยู่ในระยะ = ไม่วาด
+
+        int rx = lerp(e.prevX, e.x, alpha);
+        int ry = lerp(e.prevY, e.y, alpha);
+        if (enemyFrames == null) {
+            enemyFrames = bake(Enemy.TYPE, Enemy.CLIPS, null, 1f);
+        }
+        BufferedImage[][] frames = enemyFrames[e.state.ordinal()];
+
+        if (frames == null) {
+            queue.fill(RenderQueue.LAYER_ENEMIES, Color.RED, rx, ry, e.width, e.height);
+            return;
+        }
+        submitFrame(RenderQueue.LAYER_ENEMIES, frames, e.currentFrame, rx, ry, e.facingRight);
+    }
+
+    private void drawBoss(Boss b, double alpha) {
+        int rx = lerp(b.prevX, b.x, alpha);
+        int ry = lerp(b.prevY, b.y, alpha);
+
+        if (bossFrames == null) {
+            bossFrames = bake(Boss.TYPE, Boss.CLIPS, null, 1f);
+            bossHitFrames = bake(Boss.TYPE, Boss.CLIPS, BOSS_HIT_FLASH, BOSS_HIT_OPACITY);
+            bossAura = shape(b.width + 40, b.height + 40, BOSS_AURA, true, false);
+            bossRing = shape(b.width + 20, b.height + 20, BOSS_RING, false, false);
+        }
+        BufferedImage[][] frames = (b.hit ? bossHitFrames : bossFrames)[b.state.ordinal()];
+        if (frames == null) {
+            queue.fill(RenderQueue.LAYER_BOSS, BOSS_FALLBACK, rx, ry, b.width, b.height);
+            return;
+        }
+
+        // Enrage visual effect (ตอนโดนตี จางลงเท่ากับ hit flash)
+        if (b.enraged) {
+            queue.sprite(RenderQueue.LAYER_BOSS_AURA, bossAura, rx - 20, ry - 20, b.hit ? BOSS_HIT_OPACITY : 1f);
+        }
+
+        // draw with facing; hit flash ถูก bake ไว้ใน frame แล้ว (กล่องแดง + sprite จาง)
+        submitFrame(RenderQueue.LAYER_BOSS, frames, b.currentFrame, rx, ry, b.facingRight);
+
+        if (b.hit) queue.sprite(RenderQueue.LAYER_BOSS_RING, bossRing, rx - 10, ry - 10);
+    }
+
+    private static int lerp(double prev, double now, double alpha) {
+        return (int) (prev + (now - prev) * alpha);
+    }
+
+    // clips ตามลำดับ ordinal ของ State
+    private static BufferedImage[][][] bake(Archetype type, AnimationClip[] clips, Color flash, float opacity) {
+        int fw = type.frameWidth, fh = type.frameHeight, w = type.width, h = type.height;
+        BufferedImage[][][] frames = new BufferedImage[clips.length][][];
+        for (int i = 0; i < clips.length; i++) {
+            String sheet = clips[i].sheet;
+            BufferedImage[] left, right;
+            if (flash == null) {
+                left = SpriteCache.frames(sheet, fw, fh, w, h, true);
+                right = SpriteCache.frames(sheet, fw, fh, w, h, false);
+            } else {
+                left = SpriteCache.flashFrames(sheet, fw, fh, w, h, true, flash, opacity);
+                right = SpriteCache.flashFrames(sheet, fw, fh, w, h, false, flash, opacity);
+            }
+            if (left != null) frames[i] = new BufferedImage[][] { left, right };
+        }
+        return frames;
+    }
+
+    // วงรี/สี่เหลี่ยมมุมมนสีเดียว; เส้นขอบ (fill = false) กินพื้นที่เกินขนาดไป 1 px
+    private static BufferedImage shape(int w, int h, Color color, boolean fill, boolean rounded) {
+        int pad = fill ? 0 : 1;
+        BufferedImage img = GraphicsEnvironment.isHeadless()
+                ? new BufferedImage(w + pad, h + pad, BufferedImage.TYPE_INT_ARGB)
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                        .getDefaultConfiguration().createCompatibleImage(w + pad, h + pad, Transparency.TRANSLUCENT);
+        Graphics2D g = img.createGraphics();
+        g.setColor(color);
+        if (rounded) g.fillRoundRect(0, 0, w, h, 10, 10);
+        else if (fill) g.fillOval(0, 0, w, h);
+        else g.drawOval(0, 0, w, h);
+        g.dispose();
+        return img;
+    }
+
+    // blit 1:1 ไม่มี scale/flip ตอนวาด; frame เกินจำนวนใน sheet = ไม่วาด (เหมือนเดิม)
+    private void submitFrame(int layer, BufferedImage[][] frames, int frame, int x, int y, boolean facingRight) {
+        if (frames == null) return;
+        BufferedImage[] set = frames[facingRight ? 1 : 0];
+        if (frame < set.length) queue.sprite(layer, set[frame], x, y);
+    }
+}
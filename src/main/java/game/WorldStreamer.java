@@ -0,0 +1,434 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Splits the level into CHUNK_WIDTH slices along x and keeps only a window of them around the
+ * player resident. Chunks ahead are generated on a background thread from (seed, chunk index),
+ * so the same seed always gives the same level whatever order chunks are built in. A chunk is
+ * handed to the world only when it enters the window, never earlier, so the simulation stays
+ * deterministic no matter how fast the generator thread runs.
+ *
+ * Chunks come from a binary level file when one is given (see LevelFile), otherwise they are
+ * generated procedurally.
+ *
+ * Config (system properties):
+ *   game.level         path of a .lvl file to stream instead of generating
+ *   game.world.chunks  level length in chunks, 0 = endless (default 3, the classic level)
+ *   game.world.ahead   chunks resident ahead of the player (default 2)
+ *   game.world.behind  chunks resident behind the player (default 1)
+ *   game.world.budget  max chunks in memory, resident + prefetched (default 8)
+ */
+public class WorldStreamer {
+    public static final int CHUNK_WIDTH = GameWorld.WIDTH;
+
+    // platform + Aabb + header รวม ~ 100 byte; enemy ~ 400 byte (ใช้ประมาณการ memory เท่านั้น)
+    private static final int PLATFORM_BYTES = 100;
+    private static final int ENEMY_BYTES = 400;
+
+    private static final ExecutorService GENERATOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "world-gen");
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+
+    /** Spawn list entry: {kind, x, y, arg} with kind one of the LevelFile record kinds. */
+    public static final int SPAWN_STRIDE = 4;
+    private static final int[] NO_SPAWNS = new int[0];
+    private static final int START_ENEMIES = 5;
+
+    /** Content of one chunk; spawns are created by the world when the chunk is loaded. */
+    public static final class Chunk {
+        public final int index;
+        public final List<Platform> platforms = new ArrayList<>();
+        public int[] spawns = NO_SPAWNS;
+
+        Chunk(int index) {
+            this.index = index;
+        }
+
+        public int left() { return index * CHUNK_WIDTH; }
+        public int right() { return left() + CHUNK_WIDTH; }
+
+        long bytes() {
+            return (long) platforms.size() * PLATFORM_BYTES + (long) spawns.length / SPAWN_STRIDE * ENEMY_BYTES;
+        }
+    }
+
+    private int levelChunks;
+    private int levelRight;
+    private LevelFile level;
+    private final int ahead, behind, prefetch;
+
+    private long seed;
+    // window [lo, prefetchHi] เป็น ring ตาม index ของ chunk (ช่อง k % span) -> update() ต่อ tick
+    // ไม่มี map, iterator หรือ boxing; resident คือช่วง [lo, hi] ที่ต่อกันเสมอ
+    private final int span;
+    private final Chunk[] resident;
+    private final Future<Chunk>[] pending;
+    private final int[] pendingIndex;
+    private int lo, hi = -1;
+    private int pendingCount;
+    // ลำดับที่ chunk ถูกส่งให้ world = ลำดับ platform ใน list ของ world (ใช้ตอน checkpoint)
+    private final ArrayList<Chunk> loadOrder = new ArrayList<>();
+    // spawn record ที่มีตัวอยู่ในโลกแล้ว หรือถูกฆ่า/เก็บไปแล้ว: chunk index -> bitset ตามลำดับ record
+    private final HashMap<Integer, long[]> claimed = new HashMap<>();
+
+    private long generated, unloaded, stalls;
+    private long residentBytes;
+
+    private static final Metrics.Gauge G_RESIDENT = Metrics.gauge("world.chunks.resident");
+    private static final Metrics.Gauge G_PENDING = Metrics.gauge("world.chunks.prefetched");
+    private static final Metrics.Gauge G_BYTES = Metrics.gauge("world.chunks.bytes");
+    private static final Metrics.Gauge G_STALLS = Metrics.gauge("world.chunks.stalls");
+
+    public WorldStreamer() {
+        this(Integer.getInteger("game.world.chunks", 3),
+                Integer.getInteger("game.world.ahead", 2),
+                Integer.getInteger("game.world.behind", 1),
+                Integer.getInteger("game.world.budget", 8));
+        String path = System.getProperty("game.level");
+        if (path != null) {
+            try {
+                useLevel(LevelFile.open(Path.of(path)));
+            } catch (IOException e) {
+                System.err.println("❌ Failed to load level " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public WorldStreamer(int levelChunks, int ahead, int behind, int budget) {
+        this.levelChunks = Math.max(0, levelChunks);
+        this.levelRight = isEndless() ? Integer.MAX_VALUE : this.levelChunks * CHUNK_WIDTH;
+        this.behind = Math.max(0, behind);
+        // window ต้องพอดี budget เสมอ ที่เหลือใช้ prefetch
+        this.ahead = Math.max(1, Math.min(ahead, budget - this.behind - 1));
+        this.prefetch = Math.max(0, budget - this.behind - this.ahead - 1);
+        this.span = this.behind + this.ahead + 1 + this.prefetch;
+        this.resident = new Chunk[span];
+        @SuppressWarnings("unchecked")
+        Future<Chunk>[] futures = (Future<Chunk>[]) new Future<?>[span];
+        this.pending = futures;
+        this.pendingIndex = new int[span];
+    }
+
+    /** Streams chunks from a level file from the next reset() on. */
+    public void useLevel(LevelFile level) {
+        this.level = level;
+        this.levelChunks = level.chunkCount();
+        this.levelRight = level.width();
+    }
+
+    /** The level file being streamed, or null for a generated level. */
+    public LevelFile level() {
+        return level;
+    }
+
+    public boolean isEndless() {
+        return levelChunks == 0;
+    }
+
+    /** Right edge of the level in world x, or Integer.MAX_VALUE when endless. */
+    public int levelRight() {
+        return levelRight;
+    }
+
+    /** Drops every chunk and starts over with a new seed; the next update() loads the first window. */
+    public void reset(long seed) {
+        this.seed = seed;
+        for (int s = 0; s < span; s++) {
+            if (pending[s] != null) pending[s].cancel(false);
+            pending[s] = null;
+            resident[s] = null;
+        }
+        pendingCount = 0;
+        lo = 0;
+        hi = -1;
+        loadOrder.clear();
+        residentBytes = 0;
+        claimed.clear();
+    }
+
+    /**
+     * Marks spawn record r of chunk k as taken: the world calls this when it creates the entity
+     * and keeps the claim when the entity is killed or collected, so reloading the chunk skips it.
+     */
+    public void claim(int k, int r) {
+        long[] bits = claimed.get(k);
+        if (bits == null || bits.length <= r >> 6) {
+            long[] grown = new long[(r >> 6) + 1];
+            if (bits != null) System.arraycopy(bits, 0, grown, 0, bits.length);
+            claimed.put(k, bits = grown);
+        }
+        bits[r >> 6] |= 1L << r;
+    }
+
+    /** Gives spawn record r of chunk k back, for an entity dropped alive with its chunk. */
+    public void release(int k, int r) {
+        long[] bits = claimed.get(k);
+        if (bits != null && bits.length > r >> 6) bits[r >> 6] &= ~(1L << r);
+    }
+
+    public boolean isClaimed(int k, int r) {
+        long[] bits = claimed.get(k);
+        return bits != null && bits.length > r >> 6 && (bits[r >> 6] & 1L << r) != 0;
+    }
+
+    void saveClaims(ByteBuffer b) {
+        b.putInt(claimed.size());
+        claimed.forEach((k, bits) -> {
+            b.putInt(k).putInt(bits.length);
+            for (long w : bits) b.putLong(w);
+        });
+    }
+
+    void loadClaims(ByteBuffer b) {
+        claimed.clear();
+        for (int n = WorldCheckpoint.count(b, 8); n > 0; n--) {
+            int k = b.getInt();
+            long[] bits = new long[WorldCheckpoint.count(b, 8)];
+            for (int i = 0; i < bits.length; i++) bits[i] = b.getLong();
+            claimed.put(k, bits);
+        }
+    }
+
+    /** Indices of the resident chunks in the order they were handed to the world. */
+    public int[] residentOrder() {
+        int[] order = new int[loadOrder.size()];
+        for (int i = 0; i < order.length; i++) order[i] = loadOrder.get(i).index;
+        return order;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Makes exactly the given chunks resident, listed in load order, and returns them in that
+     * order without calling any load/unload callback: the caller rebuilds their content itself.
+     * Chunks already resident under the same seed are kept, the rest are built right here.
+     * Used to restore checkpoints.
+     */
+    public List<Chunk> restore(long seed, int[] order) {
+        checkRestorable(order);
+        if (seed != this.seed) reset(seed);
+        int min = Integer.MAX_VALUE, max = -1;
+        for (int k : order) {
+            min = Math.min(min, k);
+            max = Math.max(max, k);
+        }
+        Chunk[] chunks = new Chunk[order.length];
+        int kept = 0;
+        for (int i = 0; i < order.length; i++) {
+            int k = order[i];
+            if (k >= lo && k <= hi) {
+                chunks[i] = resident[slot(k)];
+                kept++;
+            }
+        }
+        unloaded += residentChunks() - kept;
+        for (int s = 0; s < span; s++) resident[s] = null;
+        loadOrder.clear();
+        residentBytes = 0;
+        lo = order.length > 0 ? min : 0;
+        hi = order.length > 0 ? max : -1;
+        for (int i = 0; i < order.length; i++) {
+            Chunk c = chunks[i] != null ? chunks[i] : take(order[i]);
+            resident[slot(c.index)] = c;
+            loadOrder.add(c);
+            residentBytes += c.bytes();
+        }
+        // prefetch ของ chunk ที่ตอนนี้ resident แล้วไม่ต้องใช้
+        for (int s = 0; s < span; s++) {
+            if (pending[s] != null && pendingIndex[s] >= lo && pendingIndex[s] <= hi) {
+                pending[s].cancel(false);
+                pending[s] = null;
+                pendingCount--;
+            }
+        }
+        return Collections.unmodifiableList(loadOrder);
+    }
+
+    /** Fails unless order lists distinct chunks forming one window this streamer can hold. */
+    void checkRestorable(int[] order) {
+        int min = Integer.MAX_VALUE, max = -1;
+        for (int k : order) {
+            if (k < 0 || (!isEndless() && k >= levelChunks)) throw new IllegalArgumentException("no chunk " + k);
+            min = Math.min(min, k);
+            max = Math.max(max, k);
+        }
+        if (order.length > 0 && max - min + 1 != order.length) {
+            throw new IllegalArgumentException("resident chunks are not one contiguous window");
+        }
+        if (order.length > span) {
+            throw new IllegalArgumentException(order.length + " resident chunks, this window holds " + span);
+        }
+    }
+
+    /**
+     * Slides the window to the chunk containing focusX. Chunks entering it are passed to load
+     * (waiting for the generator if it is behind), chunks leaving it are passed to unload.
+     */
+    public void update(int focusX, Consumer<Chunk> load, Consumer<Chunk> unload) {
+        int focus = Math.max(0, Math.floorDiv(focusX, CHUNK_WIDTH));
+        int newLo = Math.max(0, focus - behind);
+        int newHi = clampToLevel(focus + ahead);
+        int prefetchHi = clampToLevel(newHi + prefetch);
+
+        // ออกจาก window -> unload ตามลำดับ x
+        for (int k = lo; k <= hi; k++) {
+            if (k >= newLo && k <= newHi) continue;
+            int s = slot(k);
+            Chunk c = resident[s];
+            resident[s] = null;
+            loadOrder.remove(c);
+            residentBytes -= c.bytes();
+            unloaded++;
+            unload.accept(c);
+        }
+
+        // prefetch ที่หลุดช่วงไปแล้ว -> ยกเลิก (ต้องทำก่อน ช่องใน ring จะถูกใช้กับ index ใหม่)
+        for (int s = 0; s < span; s++) {
+            if (pending[s] == null) continue;
+            int k = pendingIndex[s];
+            if (k >= newLo && k <= prefetchHi) continue;
+            pending[s].cancel(false);
+            pending[s] = null;
+            pendingCount--;
+        }
+
+        // เข้า window -> load ตามลำดับ x
+        int oldLo = lo, oldHi = hi;
+        lo = newLo;
+        hi = newHi;
+        for (int k = newLo; k <= newHi; k++) {
+            if (k >= oldLo && k <= oldHi) continue;
+            Chunk c = take(k);
+            resident[slot(k)] = c;
+            loadOrder.add(c);
+            residentBytes += c.bytes();
+            load.accept(c);
+        }
+
+        // prefetch ล่วงหน้า
+        for (int k = newHi + 1; k <= prefetchHi; k++) {
+            int s = slot(k);
+            if (pending[s] != null) continue;
+            long seed = this.seed;
+            int index = k;
+            pending[s] = GENERATOR.submit(() -> build(seed, index));
+            pendingIndex[s] = k;
+            pendingCount++;
+        }
+
+        G_RESIDENT.set(residentChunks());
+        G_PENDING.set(pendingCount);
+        G_BYTES.set(residentBytes);
+        G_STALLS.set(stalls);
+    }
+
+    private int slot(int k) {
+        return k % span;
+    }
+
+    private int clampToLevel(int k) {
+        return isEndless() ? k : Math.min(k, levelChunks - 1);
+    }
+
+    private Chunk take(int k) {
+        int s = slot(k);
+        Future<Chunk> f = null;
+        if (pending[s] != null && pendingIndex[s] == k) {
+            f = pending[s];
+            pending[s] = null;
+            pendingCount--;
+        }
+        generated++;
+        if (f == null) {
+            // ยังไม่เคยขอ (เช่นตอนเริ่ม/เดินถอยหลัง) -> สร้างบน sim thread เลย
+            return build(seed, k);
+        }
+        if (!f.isDone()) stalls++;
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return build(seed, k);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Chunk " + k + " failed to generate", e.getCause());
+        }
+    }
+
+    public int residentChunks() { return hi - lo + 1; }
+    public long residentBytes() { return residentBytes; }
+    public long generatedChunks() { return generated; }
+    public long unloadedChunks() { return unloaded; }
+    public long stalls() { return stalls; }
+
+    // ============================ Generator ============================
+    private Chunk build(long seed, int index) {
+        return level != null ? level.readChunk(index) : generate(seed, index, levelChunks);
+    }
+
+    /** Pure function of (seed, index): safe to run on any thread, in any order. */
+    static Chunk generate(long seed, int index, int levelChunks) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        Chunk c = new Chunk(index);
+        int w = GameWorld.WIDTH, h = GameWorld.HEIGHT;
+
+        // พื้นล่างสุด (ต่อกันทีละ chunk)
+        c.platforms.add(new Platform(c.left(), h - 90, CHUNK_WIDTH, 60, true, 0));
+
+        // ขอบซ้ายและขวา
+        if (index == 0) c.platforms.add(new Platform(-200, 0, 200, h, true, 0));
+        if (levelChunks > 0 && index == levelChunks - 1) {
+            c.platforms.add(new Platform(levelChunks * CHUNK_WIDTH, 0, 200, h, true, 0));
+        }
+
+        // แพลตฟอร์มระดับกลาง: ช่องละ 250 px เริ่มที่ x = 500 เหมือนด่านเดิม
+        int baseY = h - 300;
+        int firstSlot = Math.max(0, Math.floorDiv(c.left() - 500 + 249, 250));
+        for (int slot = firstSlot; 500 + slot * 250 < c.right(); slot++) {
+            int x = 500 + slot * 250 + random.nextInt(60);
+            int y = baseY - random.nextInt(100);
+            int pw = 100 + random.nextInt(100);
+            c.platforms.add(new Platform(x, y, pw, 20));
+        }
+
+        // ศัตรูตั้งต้น 5 ตัวของด่านเดิม (x = 300 + i * 350) เป็น spawn record ของ chunk ที่มันยืน
+        // -> หลุดไปพร้อม chunk แล้วกลับมาตอนโหลดใหม่ เหมือนศัตรูในไฟล์ด่าน
+        int first = Math.max(0, Math.floorDiv(c.left() - 300 + 349, 350));
+        int last = Math.min(START_ENEMIES, Math.floorDiv(c.right() - 300 + 349, 350));
+        int starting = Math.max(0, last - first);
+
+        // ด่านไม่รู้จบ: ศัตรูรอใน chunk ข้างหน้าด้วย
+        int waiting = levelChunks == 0 && index >= 2 ? 1 + random.nextInt(3) : 0;
+        if (starting + waiting > 0) {
+            c.spawns = new int[(starting + waiting) * SPAWN_STRIDE];
+            for (int i = 0; i < starting; i++) {
+                c.spawns[i * SPAWN_STRIDE] = LevelFile.ENEMY;
+                c.spawns[i * SPAWN_STRIDE + 1] = 300 + (first + i) * 350;
+                c.spawns[i * SPAWN_STRIDE + 2] = 50;
+            }
+            for (int i = starting; i < starting + waiting; i++) {
+                c.spawns[i * SPAWN_STRIDE] = LevelFile.ENEMY;
+                c.spawns[i * SPAWN_STRIDE + 1] = c.left() + random.nextInt(CHUNK_WIDTH - 100);
+                c.spawns[i * SPAWN_STRIDE + 2] = 50;
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,43 @@
+package game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The classic 3-chunk level unloads chunk 0 once the player is far enough right; walking back
+ * must bring its starting enemies back, or a player who ran past them could never reach the boss.
+ */
+class ClassicLevelStreamingTest {
+    private final PlayerInput input = new PlayerInput();
+
+    @Test
+    void startingEnemiesComeBackAfterWalkingToTheWallAndBack() {
+        GameWorld world = new GameWorld(42);
+        WorldStreamer streamer = world.getStreamer();
+        int wall = streamer.levelRight() - world.getPlayer().width;
+
+        input.right = true;
+        walk(world, () -> world.getPlayer().x >= wall - 10);
+        assertTrue(streamer.unloadedChunks() > 0, "chunk 0 never unloaded");
+
+        input.right = false;
+        input.left = true;
+        walk(world, () -> world.getPlayer().x <= 200);
+        // ไม่ได้ฆ่าตัวไหน -> ศัตรูตั้งต้นต้องอยู่ครบ
+        assertEquals(0, world.getScore());
+        assertEquals(5, world.getEnemies().size(), "enemies lost while their chunk was unloaded");
+    }
+
+    // เดิน (กระโดดข้ามศัตรูที่ขวาง) จนถึงจุดหมาย; เลือดเต็มตลอด ไม่ให้ game over
+    private void walk(GameWorld world, java.util.function.BooleanSupplier arrived) {
+        for (int i = 0; i < 20_000 && !arrived.getAsBoolean(); i++) {
+            input.jump = i % 40 == 0;
+            world.step(input);
+            input.clearPresses();
+            world.getPlayer().health = 100;
+        }
+        assertTrue(arrived.getAsBoolean(), "player got stuck at x " + world.getPlayer().x);
+    }
+}
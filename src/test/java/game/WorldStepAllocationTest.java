@@ -0,0 +1,79 @@
+package game;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * A warmed-up world must step without allocating: a bot walks, attacks, jumps and dashes on a
+ * fixed schedule through whole games, from reset() to well past the boss spawn, so kills,
+ * respawns, potion drops, trails and boss combat are all measured. Bytes come from the thread
+ * allocation counter instead of a profiler. Restarts and the boss spawn tick itself (one-off
+ * println) are left out of the count.
+ */
+class WorldStepAllocationTest {
+    private static final int WARMUP_RUNS = 8;
+    private static final int MEASURED_RUNS = 3;
+    private static final int MAX_COMBAT_TICKS = 150_000;
+    private static final int BOSS_TICKS = 5_000;
+
+    private final PlayerInput input = new PlayerInput();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long self = Thread.currentThread().getId();
+    private long frame;
+
+    @Test
+    void steppingAllocatesNothing() {
+        // ต่ำกว่า game.parallel.threshold -> EnemyStepper เดินทางเดียว (ทางขนานสร้าง task ทุก tick)
+        GameWorld world = new GameWorld(42);
+        for (int run = 0; run < WARMUP_RUNS; run++) play(world);
+
+        // JIT recompile/deopt บางครั้งจองของเองไม่กี่ byte -> ขอแค่มีรอบที่สะอาดครบทั้งสองช่วง
+        String seen = "";
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long[] bytes = play(world);
+            if (bytes[0] == 0 && bytes[1] == 0) return;
+            seen += " [combat " + bytes[0] + " B, boss " + bytes[1] + " B]";
+        }
+        fail("every measured run allocated:" + seen);
+    }
+
+    /** Plays one run from reset() to BOSS_TICKS past the boss spawn; returns {combat, boss} bytes. */
+    private long[] play(GameWorld world) {
+        world.reset();
+        frame = 0;
+
+        long combat = 0;
+        for (int i = 0; i < MAX_COMBAT_TICKS && world.getBoss() == null; i++) {
+            long before = threads.getThreadAllocatedBytes(self);
+            step(world);
+            if (world.getBoss() == null) combat += threads.getThreadAllocatedBytes(self) - before;
+        }
+        assertTrue(world.getBoss() != null, "boss never spawned, score " + world.getScore());
+
+        long before = threads.getThreadAllocatedBytes(self);
+        for (int i = 0; i < BOSS_TICKS; i++) step(world);
+        long boss = threads.getThreadAllocatedBytes(self) - before;
+        return new long[] { combat, boss };
+    }
+
+    private void step(GameWorld world) {
+        // เดินไป-กลับ ให้ enemy ตามมาและ activate/deactivate ตลอด; ตี/กระโดด/dash ตามตารางตายตัว
+        input.right = (frame / 240) % 2 == 0;
+        input.left = !input.right;
+        input.attack = frame % 45 == 0;
+        input.jump = frame % 90 == 45;
+        input.dash = frame % 300 == 100;
+        world.step(input);
+        input.clearPresses();
+        // ไม่ให้ใครตาย: player เต็มเลือดตลอด, boss เหลืออย่างน้อยครึ่งหลอด (ช่วง boss ยาวครบ)
+        world.getPlayer().health = 100;
+        Boss boss = world.getBoss();
+        if (boss != null) boss.health = Math.max(boss.health, boss.maxHealth / 2);
+        frame++;
+    }
+}